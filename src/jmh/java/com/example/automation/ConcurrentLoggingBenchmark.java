@@ -0,0 +1,100 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Many threads logging failures at once: the batched {@link ReportSink} path against the
+ * previous lock-plus-{@code Files.writeString(APPEND)} approach, both writing to a temp file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class ConcurrentLoggingBenchmark {
+
+    private static final Object LEGACY_LOCK = new Object();
+
+    @Param({"1024", "65536"})
+    int bodySize;
+
+    private Path reportPath;
+    private ReportSink sink;
+    private HttpRequest request;
+    private HttpResponse<String> response;
+    private Throwable error;
+    private CurlReporter.FailureDetails details;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        reportPath = Files.createTempFile("curl-report-bench", ".txt");
+        request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:9090/api/orders/abcd-12345/status"))
+                .GET()
+                .build();
+        response = new StubResponse(request, 500, StubResponse.body(bodySize));
+        error = new AssertionError("Expected 200/201 from GET /api/orders/{id}/status but got 500");
+        details = new CurlReporter.FailureDetails(
+                "status code in [200, 201]", "200 or 201", "500",
+                "src/main/java/com/example/apptestpipeline/order/OrderController.java:getOrderStatus",
+                null, "AssertionFailedError at getOrderStatus(TestInfo)::assertStatusCode");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(reportPath);
+    }
+
+    /**
+     * Starts every iteration from an empty file so long runs do not fill the disk.
+     */
+    @Setup(Level.Iteration)
+    public void openSink() throws IOException {
+        sink = ReportSink.open(reportPath, true);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeSink() throws IOException {
+        sink.close();
+    }
+
+    @Benchmark
+    public void batchedSink() {
+        sink.append(CurlReporter.formatFailure("getOrderStatus(TestInfo)", request, null, response, error, details));
+    }
+
+    @Benchmark
+    public void lockedWriteString() throws IOException {
+        String entry = CurlReporter.formatFailure("getOrderStatus(TestInfo)", request, null, response, error, details);
+        synchronized (LEGACY_LOCK) {
+            Files.createDirectories(reportPath.getParent());
+            Files.writeString(reportPath, entry, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+}
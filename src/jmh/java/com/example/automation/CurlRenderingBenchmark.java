@@ -0,0 +1,90 @@
+package com.example.automation;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single-threaded cost of rendering report entries: the curl line on its own, a plain
+ * {@code log} entry, and the two {@code logFailure} shapes the tests produce (status-code
+ * failures that go through the regex fix-action branch, and string-literal mismatches that
+ * embed the whole body in {@code actual}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurlRenderingBenchmark {
+
+    @Param({"1024", "65536", "1048576", "10485760"})
+    int bodySize;
+
+    private HttpRequest request;
+    private String requestBody;
+    private HttpResponse<String> response;
+    private Throwable error;
+    private CurlReporter.FailureDetails statusCodeDetails;
+    private CurlReporter.FailureDetails bodyMismatchDetails;
+
+    @Setup
+    public void setUp() {
+        requestBody = "{\"customerId\":\"cust-123\",\"deliveryNotes\":\"Leave at porch, it's fine\"}";
+        request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:9090/api/orders"))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .build();
+        String body = StubResponse.body(bodySize);
+        response = new StubResponse(request, 500, body);
+        error = new AssertionError("Expected 200/201 from POST /api/orders but got 500");
+        statusCodeDetails = new CurlReporter.FailureDetails(
+                "status code in [200, 201]", "200 or 201", "500",
+                "src/main/java/com/example/apptestpipeline/order/OrderController.java:getOrderStatus",
+                null, "AssertionFailedError at getOrderStatus(TestInfo)::assertStatusCode");
+        bodyMismatchDetails = new CurlReporter.FailureDetails(
+                "status in [200,201] and body not empty", "HTTP 200/201 with non-empty body",
+                "HTTP 500 with body: " + body,
+                "src/main/java/com/example/apptestpipeline/order/OrderController.java:createOrder",
+                null, "AssertionFailedError at createOrder(TestInfo)::assertStatusOrBody");
+    }
+
+    @Benchmark
+    public String toCurl() {
+        return CurlReporter.toCurl(request, requestBody);
+    }
+
+    @Benchmark
+    public String formatEntry() {
+        return CurlReporter.formatEntry("createOrder(TestInfo)", request, requestBody, response, "FAILURE");
+    }
+
+    @Benchmark
+    public String formatStatusCodeFailure() {
+        return CurlReporter.formatFailure("getOrderStatus(TestInfo)", request, null, response, error,
+                statusCodeDetails);
+    }
+
+    @Benchmark
+    public String formatBodyMismatchFailure() {
+        return CurlReporter.formatFailure("createOrder(TestInfo)", request, requestBody, response, error,
+                bodyMismatchDetails);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.automation;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.net.ssl.SSLSession;
+
+/**
+ * Canned {@link HttpResponse} so benchmarks exercise the reporter without a network.
+ */
+final class StubResponse implements HttpResponse<String> {
+
+    private static final HttpHeaders HEADERS = HttpHeaders.of(Map.of(
+            "content-type", List.of("application/json"),
+            "date", List.of("Thu, 01 Jan 2026 00:00:00 GMT"),
+            "vary", List.of("Origin", "Access-Control-Request-Method", "Access-Control-Request-Headers"),
+            "x-request-id", List.of("5f0c9d1e-6f4b-4a57-9a38-2a1f0c1b9e11")
+    ), (name, value) -> true);
+
+    private final HttpRequest request;
+    private final int statusCode;
+    private final String body;
+
+    StubResponse(HttpRequest request, int statusCode, String body) {
+        this.request = request;
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+
+    /**
+     * JSON-ish error body of roughly {@code size} characters.
+     */
+    static String body(int size) {
+        StringBuilder sb = new StringBuilder(size + 128).append("{\"error\":\"Internal Server Error\",\"trace\":\"");
+        while (sb.length() < size) {
+            sb.append("at com.example.apptestpipeline.order.OrderController.getOrderStatus(OrderController.java:133) ");
+        }
+        sb.setLength(Math.max(size - 2, 0));
+        return sb.append("\"}").toString();
+    }
+
+    @Override
+    public int statusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public HttpRequest request() {
+        return request;
+    }
+
+    @Override
+    public Optional<HttpResponse<String>> previousResponse() {
+        return Optional.empty();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return HEADERS;
+    }
+
+    @Override
+    public String body() {
+        return body;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return Optional.empty();
+    }
+
+    @Override
+    public URI uri() {
+        return request.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return HttpClient.Version.HTTP_1_1;
+    }
+}
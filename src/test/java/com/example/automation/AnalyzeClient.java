@@ -0,0 +1,318 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Client for the analyze-and-fix API that never parks a thread on the response.
+ * {@link #submit} sends the request with {@code sendAsync} and returns a {@link Job} at once.
+ * A server that accepts the work asynchronously ({@code 202} plus a {@code Location} header,
+ * {@code status_url} or {@code job_id}) is polled with adaptive backoff. The backoff doubles
+ * while nothing changes, drops back to the minimum when the reported progress moves and honours
+ * {@code Retry-After}. A server that answers synchronously completes the job with that answer.
+ *
+ * The existing endpoint answers synchronously and can take minutes, so the submit may use the
+ * whole {@code timeout}; an unreachable endpoint still fails at the client's connect timeout.
+ *
+ * <p>Run by the {@code analyzeAndFix} Gradle task as {@code AnalyzeClient <result.json> <buildId>},
+ * configured through {@code analyze.url}, {@code analyze.timeoutSeconds} and {@code analyze.dryRun}.
+ */
+final class AnalyzeClient {
+
+    static final URI DEFAULT_ANALYZE_URI = URI.create("http://localhost:9000/api/analyze-and-fix");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Set<String> PENDING_STATES = Set.of("accepted", "queued", "pending", "running", "in_progress", "processing");
+
+    private final HttpClient client;
+    private final URI submitUri;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final Duration timeout;
+
+    AnalyzeClient(HttpClient client, URI submitUri, Duration minBackoff, Duration maxBackoff, Duration timeout) {
+        this.client = client;
+        this.submitUri = submitUri;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: AnalyzeClient <result.json> <buildId>");
+        }
+        AnalyzeClient analyzer = new AnalyzeClient(
+                HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build(),
+                URI.create(System.getProperty("analyze.url", DEFAULT_ANALYZE_URI.toString())),
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(30),
+                Duration.ofSeconds(Long.getLong("analyze.timeoutSeconds", 1200)));
+        String buildId = args[1];
+        log("submitting analysis for buildId=" + buildId + " to " + analyzer.submitUri);
+        Job job = analyzer.submit(buildId, payload(buildId, Boolean.getBoolean("analyze.dryRun")));
+        Result result = job.result.join();
+        result.writeTo(Path.of(args[0]));
+        log(result.describe());
+    }
+
+    /**
+     * The request body the build has always sent.
+     */
+    static Map<String, Object> payload(String buildId, boolean dryRun) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("build_id", buildId);
+        payload.put("github_repo_path", CurlReporter.PIPELINE_REPO);
+        payload.put("automation_repo_path", CurlReporter.AUTOMATION_SUITE_REPO);
+        payload.put("action", "FIX");
+        payload.put("by_pass_rag", true);
+        payload.put("hours_lookback", 24);
+        payload.put("target_branch", "main");
+        payload.put("dry_run", dryRun);
+        return payload;
+    }
+
+    Job submit(String buildId, Map<String, Object> payload) {
+        Job job = new Job(buildId, System.nanoTime() + timeout.toNanos());
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(submitUri)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json")
+                    .header("Prefer", "respond-async")
+                    .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(payload)))
+                    .build();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialise analyze request", e);
+        }
+        job.state = "submitted";
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        job.finish(Result.failed(job, 0, "submit failed: " + error));
+                    } else {
+                        onSubmitted(job, response);
+                    }
+                });
+        return job;
+    }
+
+    private void onSubmitted(Job job, HttpResponse<String> response) {
+        int status = response.statusCode();
+        JsonNode body = parse(response.body());
+        if (status == 202) {
+            URI statusUri = statusUri(response, body);
+            if (statusUri == null) {
+                job.finish(Result.failed(job, status, "202 without Location, status_url or job_id"));
+                return;
+            }
+            job.jobId = body.path("job_id").asText(statusUri.toString());
+            job.state = body.path("status").asText("accepted");
+            schedulePoll(job, statusUri, delayFor(response, minBackoff));
+        } else if (status >= 200 && status < 300) {
+            job.finish(Result.completed(job, status, body));
+        } else {
+            job.finish(Result.failed(job, status, "HTTP " + status + "; body='" + response.body() + "'"));
+        }
+    }
+
+    private void schedulePoll(Job job, URI statusUri, Duration delay) {
+        long remaining = job.deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            job.finish(Result.timedOut(job));
+            return;
+        }
+        long delayNanos = Math.min(delay.toNanos(), remaining);
+        HttpRequest poll = HttpRequest.newBuilder(statusUri)
+                .timeout(maxBackoff.plus(Duration.ofSeconds(30)))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS))
+                .thenCompose(ignored -> client.sendAsync(poll, HttpResponse.BodyHandlers.ofString()))
+                .whenComplete((response, error) -> {
+                    job.polls.incrementAndGet();
+                    if (error != null) {
+                        // Transient poll failures back off like an unchanged status.
+                        schedulePoll(job, statusUri, next(delay));
+                    } else {
+                        onPolled(job, statusUri, delay, response);
+                    }
+                });
+    }
+
+    private void onPolled(Job job, URI statusUri, Duration delay, HttpResponse<String> response) {
+        int status = response.statusCode();
+        JsonNode body = parse(response.body());
+        String state = body.path("status").asText(status == 202 ? "running" : "");
+        boolean pending = status == 202 || (status >= 200 && status < 300 && PENDING_STATES.contains(state.toLowerCase(Locale.ROOT)));
+        if (status == 429 || status >= 500) {
+            schedulePoll(job, statusUri, delayFor(response, next(delay)));
+        } else if (pending) {
+            String progress = body.path("progress").asText(state);
+            boolean moved = !progress.equals(job.progress);
+            job.state = state;
+            job.progress = progress;
+            schedulePoll(job, statusUri, delayFor(response, moved ? minBackoff : next(delay)));
+        } else if (status >= 200 && status < 300) {
+            job.finish(Result.completed(job, status, body));
+        } else {
+            job.finish(Result.failed(job, status, "status poll returned HTTP " + status + "; body='" + response.body() + "'"));
+        }
+    }
+
+    private Duration next(Duration delay) {
+        Duration doubled = delay.multipliedBy(2);
+        return doubled.compareTo(maxBackoff) > 0 ? maxBackoff : doubled;
+    }
+
+    private Duration delayFor(HttpResponse<String> response, Duration fallback) {
+        return response.headers().firstValue("Retry-After")
+                .filter(value -> value.matches("\\d+"))
+                .map(value -> Duration.ofSeconds(Long.parseLong(value)))
+                .map(retryAfter -> retryAfter.compareTo(maxBackoff) > 0 ? maxBackoff : retryAfter)
+                .orElse(fallback);
+    }
+
+    private URI statusUri(HttpResponse<String> response, JsonNode body) {
+        String location = response.headers().firstValue("Location")
+                .orElse(body.path("status_url").asText(null));
+        if (location != null) {
+            return submitUri.resolve(location);
+        }
+        String jobId = body.path("job_id").asText(null);
+        return jobId == null ? null : URI.create(submitUri + "/jobs/" + jobId);
+    }
+
+    private static JsonNode parse(String body) {
+        try {
+            return body == null || body.isBlank() ? MAPPER.createObjectNode() : MAPPER.readTree(body);
+        } catch (IOException e) {
+            return MAPPER.createObjectNode().put("raw_body", body);
+        }
+    }
+
+    private static void log(String message) {
+        System.out.println("analyzeAndFix: " + message);
+    }
+
+    /**
+     * Handle for one submitted analysis; {@link #result} completes when it finishes, fails or
+     * runs past the timeout.
+     */
+    static final class Job {
+        final String buildId;
+        final CompletableFuture<Result> result = new CompletableFuture<>();
+        final AtomicInteger polls = new AtomicInteger();
+        private final long startNanos = System.nanoTime();
+        private final long deadlineNanos;
+        volatile String jobId;
+        volatile String state = "created";
+        volatile String progress;
+
+        Job(String buildId, long deadlineNanos) {
+            this.buildId = buildId;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private void finish(Result outcome) {
+            state = outcome.state;
+            if (result.complete(outcome)) {
+                log(outcome.state + " after " + outcome.polls + " poll(s) in " + outcome.elapsedMillis + "ms");
+            }
+        }
+
+        private long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+    }
+
+    static final class Result {
+        final String state;
+        final String buildId;
+        final String jobId;
+        final int httpStatus;
+        final int polls;
+        final long elapsedMillis;
+        final String error;
+        final JsonNode response;
+
+        private Result(String state, Job job, int httpStatus, String error, JsonNode response) {
+            this.state = state;
+            this.buildId = job.buildId;
+            this.jobId = job.jobId;
+            this.httpStatus = httpStatus;
+            this.polls = job.polls.get();
+            this.elapsedMillis = job.elapsedMillis();
+            this.error = error;
+            this.response = response;
+        }
+
+        static Result completed(Job job, int httpStatus, JsonNode response) {
+            return new Result("completed", job, httpStatus, null, response);
+        }
+
+        static Result failed(Job job, int httpStatus, String error) {
+            return new Result("failed", job, httpStatus, error, null);
+        }
+
+        static Result timedOut(Job job) {
+            return new Result("timeout", job, 0, "no result after " + job.elapsedMillis() + "ms (last state "
+                    + job.state + (job.progress == null ? "" : ", progress " + job.progress) + ")", null);
+        }
+
+        String describe() {
+            if (response == null) {
+                return state + " for buildId=" + buildId + ": " + error;
+            }
+            return "status=" + response.path("status").asText(null)
+                    + ", repo_cloned=" + response.path("repo_cloned").asText(null)
+                    + ", changes_applied=" + response.path("changes_applied").asText(null)
+                    + ", pr_created=" + response.path("pr_created").asText(null)
+                    + ", node_id=" + response.path("node_id").asText(null)
+                    + ", summary_text=" + response.path("summary_text").asText(null)
+                    + ", build_id=" + buildId;
+        }
+
+        void writeTo(Path path) {
+            Map<String, Object> root = new LinkedHashMap<>();
+            root.put("state", state);
+            root.put("build_id", buildId);
+            root.put("job_id", jobId);
+            root.put("http_status", httpStatus);
+            root.put("polls", polls);
+            root.put("elapsed_ms", elapsedMillis);
+            root.put("finished_at", DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(ZonedDateTime.now()));
+            root.put("error", error);
+            root.put("response", response);
+            try {
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                MAPPER.writeValue(path.toFile(), root);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write analyze result", e);
+            }
+        }
+    }
+}
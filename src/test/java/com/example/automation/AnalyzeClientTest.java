@@ -0,0 +1,176 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class AnalyzeClientTest {
+
+    private static final String ANALYZE_PATH = "/api/analyze-and-fix";
+    private static final String FINAL_BODY = "{\"status\":\"completed\",\"repo_cloned\":true,\"changes_applied\":2,"
+            + "\"pr_created\":true,\"node_id\":\"node-9\",\"summary_text\":\"fixed payment status\"}";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private final CountDownLatch submitGate = new CountDownLatch(1);
+    private final Deque<String> pollBodies = new ConcurrentLinkedDeque<>();
+    private volatile int submitStatus = 202;
+    private volatile String submitBody = "{\"job_id\":\"job-1\",\"status\":\"queued\"}";
+    private volatile boolean gateSubmit;
+    private volatile long submitDelayMillis;
+    private volatile String lastSubmitted;
+
+    @BeforeEach
+    void startFakeAnalyzeServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(ANALYZE_PATH, this::handle);
+        server.setExecutor(TaskExecutors.perTask("fake-analyze"));
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        submitGate.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void submitReturnsImmediatelyAndPollsJobToCompletion() throws Exception {
+        gateSubmit = true;
+        pollBodies.add("{\"status\":\"running\",\"progress\":\"cloning\"}");
+        pollBodies.add("{\"status\":\"running\",\"progress\":\"cloning\"}");
+        pollBodies.add("{\"status\":\"running\",\"progress\":\"applying fix\"}");
+        pollBodies.add(FINAL_BODY);
+
+        AnalyzeClient.Job job = client(Duration.ofSeconds(10)).submit("build-7", AnalyzeClient.payload("build-7", true));
+        assertFalse(job.result.isDone(), "submit must not wait for the server");
+        submitGate.countDown();
+
+        AnalyzeClient.Result result = job.result.get(10, TimeUnit.SECONDS);
+        assertEquals("completed", result.state);
+        assertEquals("job-1", result.jobId);
+        assertEquals(4, result.polls);
+        assertEquals("node-9", result.response.get("node_id").asText());
+        JsonNode submitted = OrderApiTest.MAPPER.readTree(lastSubmitted);
+        assertEquals("build-7", submitted.get("build_id").asText());
+        assertTrue(submitted.get("dry_run").asBoolean());
+
+        Path resultFile = tempDir.resolve("reports").resolve("analyze-result.json");
+        result.writeTo(resultFile);
+        JsonNode written = OrderApiTest.MAPPER.readTree(resultFile.toFile());
+        assertEquals("completed", written.get("state").asText());
+        assertEquals("fixed payment status", written.get("response").get("summary_text").asText());
+    }
+
+    @Test
+    void synchronousAnswerCompletesWithoutPolling() throws Exception {
+        submitStatus = 200;
+        submitBody = FINAL_BODY;
+
+        AnalyzeClient.Result result = client(Duration.ofSeconds(10))
+                .submit("build-8", AnalyzeClient.payload("build-8", false)).result.get(10, TimeUnit.SECONDS);
+
+        assertEquals("completed", result.state);
+        assertEquals(0, result.polls);
+        assertTrue(result.describe().contains("pr_created=true"));
+    }
+
+    @Test
+    void jobStillRunningAtDeadlineTimesOut() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            pollBodies.add("{\"status\":\"running\"}");
+        }
+
+        AnalyzeClient.Result result = client(Duration.ofMillis(300))
+                .submit("build-9", AnalyzeClient.payload("build-9", false)).result.get(10, TimeUnit.SECONDS);
+
+        assertEquals("timeout", result.state);
+        assertTrue(result.polls > 0);
+    }
+
+    @Test
+    void rejectedSubmissionFails() throws Exception {
+        submitStatus = 400;
+        submitBody = "{\"detail\":\"unknown build\"}";
+
+        AnalyzeClient.Result result = client(Duration.ofSeconds(10))
+                .submit("build-10", AnalyzeClient.payload("build-10", false)).result.get(10, TimeUnit.SECONDS);
+
+        assertEquals("failed", result.state);
+        assertEquals(400, result.httpStatus);
+        assertTrue(result.error.contains("unknown build"));
+    }
+
+    @Test
+    void slowSynchronousAnswerGetsTheWholeBudget() throws Exception {
+        submitDelayMillis = 1500;
+        submitStatus = 200;
+        submitBody = FINAL_BODY;
+
+        AnalyzeClient.Result result = client(Duration.ofSeconds(10))
+                .submit("build-11", AnalyzeClient.payload("build-11", false)).result.get(10, TimeUnit.SECONDS);
+
+        assertEquals("completed", result.state);
+        assertEquals(0, result.polls);
+    }
+
+    private AnalyzeClient client(Duration timeout) {
+        URI uri = URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + ANALYZE_PATH);
+        return new AnalyzeClient(OrderApiTest.CLIENT, uri, Duration.ofMillis(5), Duration.ofMillis(40), timeout);
+    }
+
+    /**
+     * POST answers with {@link #submitStatus}; GET /jobs/{id} replays {@link #pollBodies}.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if ("POST".equals(exchange.getRequestMethod())) {
+                lastSubmitted = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                if (gateSubmit) {
+                    submitGate.await(10, TimeUnit.SECONDS);
+                }
+                if (submitDelayMillis > 0) {
+                    Thread.sleep(submitDelayMillis);
+                }
+                respond(exchange, submitStatus, submitBody);
+            } else {
+                String body = pollBodies.poll();
+                respond(exchange, 200, body == null ? FINAL_BODY : body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
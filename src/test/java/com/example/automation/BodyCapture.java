@@ -0,0 +1,177 @@
+package com.example.automation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/**
+ * Captures one response body with bounded memory. The first {@code limit} bytes stay in memory;
+ * past that the whole body is streamed to a file under {@link #SPILL_DIR} (or, with no spill
+ * directory, dropped) while a SHA-256 digest and byte count are kept over everything. Spill files
+ * are named after their digest, so repeats of the same large error page share one file.
+ * Not thread-safe: one capture per response.
+ */
+final class BodyCapture {
+
+    /** Bytes of each body kept in memory; {@code -PreportBodyLimitKb} overrides the 64 KB default. */
+    static final int DEFAULT_LIMIT_BYTES = Integer.getInteger("report.bodyLimitKb", 64) * 1024;
+    static final Path SPILL_DIR = Shards.local(Path.of("build", "reports", "bodies"));
+
+    private final int limit;
+    private final Path spillDir;
+    private final ByteArrayOutputStream head = new ByteArrayOutputStream();
+    private final MessageDigest digest;
+    private long total;
+    private FileChannel spill;
+    private Path spillPath;
+
+    BodyCapture(int limit, Path spillDir) {
+        this.limit = limit;
+        this.spillDir = spillDir;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Removes spill files left by a previous run.
+     */
+    static void clearSpillDirectory() {
+        if (!Files.isDirectory(SPILL_DIR)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(SPILL_DIR)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to clear spilled response bodies", e);
+        }
+    }
+
+    void write(byte[] bytes, int offset, int length) throws IOException {
+        write(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    void write(ByteBuffer buffer) throws IOException {
+        int length = buffer.remaining();
+        if (length == 0) {
+            return;
+        }
+        digest.update(buffer.duplicate());
+        total += length;
+        int kept = Math.max(0, Math.min(limit - head.size(), length));
+        if (kept > 0) {
+            if (buffer.hasArray()) {
+                head.write(buffer.array(), buffer.arrayOffset() + buffer.position(), kept);
+            } else {
+                byte[] copy = new byte[kept];
+                buffer.duplicate().get(copy);
+                head.write(copy, 0, kept);
+            }
+        }
+        if (total > limit && spillDir != null) {
+            if (spill == null) {
+                openSpill();
+            }
+            ByteBuffer rest = buffer.duplicate();
+            rest.position(rest.position() + kept);
+            while (rest.hasRemaining()) {
+                spill.write(rest);
+            }
+        }
+        buffer.position(buffer.limit());
+    }
+
+    long totalBytes() {
+        return total;
+    }
+
+    /**
+     * Closes the spill file and renders the body for the report: the whole body when it fit,
+     * otherwise the in-memory head, cut back to a whole UTF-8 character, followed by a line with
+     * the omitted size, digest and the spilled file.
+     */
+    String finish() throws IOException {
+        if (total <= head.size()) {
+            return head.toString(StandardCharsets.UTF_8);
+        }
+        byte[] kept = head.toByteArray();
+        int end = wholeCharacters(kept);
+        String text = new String(kept, 0, end, StandardCharsets.UTF_8);
+        long omitted = total - end;
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        StringBuilder marker = new StringBuilder("\n[truncated: ").append(omitted).append(" more bytes, ")
+                .append(total).append(" total, sha256=").append(sha256);
+        if (spill != null) {
+            spill.close();
+            spill = null;
+            Path target = spillDir.resolve("body-" + sha256.substring(0, 16) + ".bin");
+            try {
+                Files.move(spillPath, target);
+            } catch (FileAlreadyExistsException e) {
+                Files.delete(spillPath);
+            }
+            marker.append(", full body: ").append(target);
+        }
+        return text + marker.append("]");
+    }
+
+    /**
+     * Length of the longest prefix of {@code bytes} that does not end inside a UTF-8 sequence.
+     */
+    static int wholeCharacters(byte[] bytes) {
+        int start = bytes.length - 1;
+        while (start >= 0 && start > bytes.length - 4 && (bytes[start] & 0xC0) == 0x80) {
+            start--;
+        }
+        if (start < 0) {
+            return bytes.length;
+        }
+        int lead = bytes[start] & 0xFF;
+        int length = lead < 0x80 ? 1 : (lead & 0xE0) == 0xC0 ? 2 : (lead & 0xF0) == 0xE0 ? 3 : (lead & 0xF8) == 0xF0 ? 4 : 1;
+        return bytes.length - start < length ? start : bytes.length;
+    }
+
+    /**
+     * Releases the spill file of a body that was not read to the end.
+     */
+    void abort() {
+        try {
+            if (spill != null) {
+                spill.close();
+                spill = null;
+                Files.deleteIfExists(spillPath);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to discard spilled body", e);
+        }
+    }
+
+    /**
+     * Starts the spill file with the head already kept in memory, so it holds the full body.
+     */
+    private void openSpill() throws IOException {
+        Files.createDirectories(spillDir);
+        spillPath = Files.createTempFile(spillDir, "body-", ".part");
+        spill = FileChannel.open(spillPath, StandardOpenOption.WRITE);
+        ByteBuffer kept = ByteBuffer.wrap(head.toByteArray());
+        while (kept.hasRemaining()) {
+            spill.write(kept);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Drop-in replacement for {@code BodyHandlers.ofString()} that holds at most {@code limit}
+ * bytes per response in memory. Larger bodies are spilled to disk by {@link BodyCapture} and
+ * the returned string is the head plus a {@code [truncated: ...]} line naming the spilled file,
+ * which {@link CurlReporter} writes as-is. Buffers are requested one at a time, so a slow disk
+ * slows the download instead of queueing it in memory. With {@link JsonExpectations}, 2xx bodies
+ * are also verified as they stream, and a mismatch fails the body with an {@link IOException}.
+ */
+final class BoundedBodyHandler implements HttpResponse.BodyHandler<String> {
+
+    private final int limit;
+    private final Path spillDir;
+    private final JsonExpectations expectations;
+
+    BoundedBodyHandler(int limit, Path spillDir) {
+        this(limit, spillDir, null);
+    }
+
+    /**
+     * With {@code expectations}, 2xx bodies are checked against them while they stream.
+     */
+    BoundedBodyHandler(int limit, Path spillDir, JsonExpectations expectations) {
+        this.limit = limit;
+        this.spillDir = spillDir;
+        this.expectations = expectations;
+    }
+
+    /**
+     * Default limit, spilling to {@link BodyCapture#SPILL_DIR}; for responses that may be reported.
+     */
+    static BoundedBodyHandler ofReportedString() {
+        return new BoundedBodyHandler(BodyCapture.DEFAULT_LIMIT_BYTES, BodyCapture.SPILL_DIR);
+    }
+
+    /**
+     * Default limit, dropping the tail; for responses that are only compared, such as replays.
+     */
+    static BoundedBodyHandler ofCheckedString() {
+        return new BoundedBodyHandler(BodyCapture.DEFAULT_LIMIT_BYTES, null);
+    }
+
+    /**
+     * Default limit, dropping the tail, with 2xx bodies checked in full against {@code expectations}
+     * (if any) as they stream; for load traffic, whose bodies are dropped right after the check.
+     */
+    static BoundedBodyHandler ofVerifiedString(JsonExpectations expectations) {
+        return new BoundedBodyHandler(BodyCapture.DEFAULT_LIMIT_BYTES, null, expectations);
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<String> apply(HttpResponse.ResponseInfo responseInfo) {
+        boolean verified = expectations != null && responseInfo.statusCode() >= 200 && responseInfo.statusCode() < 300;
+        return new Subscriber(new BodyCapture(limit, spillDir), verified ? expectations.feed() : null);
+    }
+
+    private static final class Subscriber implements HttpResponse.BodySubscriber<String> {
+        private final BodyCapture capture;
+        private final JsonExpectations.Feed feed;
+        private final CompletableFuture<String> body = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        Subscriber(BodyCapture capture, JsonExpectations.Feed feed) {
+            this.capture = capture;
+            this.feed = feed;
+        }
+
+        @Override
+        public CompletionStage<String> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    if (feed != null) {
+                        feed.write(buffer);
+                    }
+                    capture.write(buffer);
+                }
+                subscription.request(1);
+            } catch (IOException e) {
+                subscription.cancel();
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            capture.abort();
+            body.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                JsonExpectations.Mismatch mismatch = feed == null ? null : feed.end();
+                if (mismatch != null) {
+                    capture.abort();
+                    body.completeExceptionally(new IOException("Body failed verification: " + mismatch.message()));
+                } else {
+                    body.complete(capture.finish());
+                }
+            } catch (IOException e) {
+                capture.abort();
+                body.completeExceptionally(e);
+            }
+        }
+    }
+}
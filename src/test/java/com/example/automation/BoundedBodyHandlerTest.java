@@ -0,0 +1,182 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+class BoundedBodyHandlerTest {
+
+    private static final int LIMIT = 1024;
+    private static final byte[] HUGE_ERROR_PAGE = errorPage(3 * 1024 * 1024);
+    private static final JsonExpectations STATUS_OK = new JsonExpectations(List.of(
+            new JsonExpectations.Expectation("status == ok", null, null, null)));
+
+    @TempDir
+    Path spillDir;
+
+    private HttpServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/huge", exchange -> {
+            try (exchange; OutputStream out = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(500, 0);
+                for (int offset = 0; offset < HUGE_ERROR_PAGE.length; offset += 64 * 1024) {
+                    out.write(HUGE_ERROR_PAGE, offset, Math.min(64 * 1024, HUGE_ERROR_PAGE.length - offset));
+                }
+            }
+        });
+        server.createContext("/large-json", exchange -> {
+            byte[] body = largeJson(exchange.getRequestURI().getQuery());
+            try (exchange; OutputStream out = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(200, body.length);
+                out.write(body);
+            }
+        });
+        server.createContext("/small", exchange -> {
+            byte[] body = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+            try (exchange; OutputStream out = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(200, body.length);
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void smallBodyIsReturnedWhole() throws Exception {
+        HttpResponse<String> response = OrderApiTest.CLIENT.send(request("/small"), new BoundedBodyHandler(LIMIT, spillDir));
+
+        assertEquals("{\"status\":\"ok\"}", response.body());
+        assertEquals(List.of(), spilledFiles());
+    }
+
+    @Test
+    void hugeBodyKeepsHeadAndSpillsTheRestWithDigest() throws Exception {
+        HttpResponse<String> response = OrderApiTest.CLIENT.send(request("/huge"), new BoundedBodyHandler(LIMIT, spillDir));
+        HttpResponse<String> repeat = OrderApiTest.CLIENT.send(request("/huge"), new BoundedBodyHandler(LIMIT, spillDir));
+
+        String body = response.body();
+        String head = new String(HUGE_ERROR_PAGE, 0, LIMIT, StandardCharsets.UTF_8);
+        assertTrue(body.startsWith(head + "\n[truncated: " + (HUGE_ERROR_PAGE.length - LIMIT) + " more bytes, "
+                + HUGE_ERROR_PAGE.length + " total, sha256=" + sha256(HUGE_ERROR_PAGE) + ", full body: "), body.substring(LIMIT));
+        assertEquals(body, repeat.body());
+
+        List<Path> spilled = spilledFiles();
+        assertEquals(1, spilled.size(), "identical bodies share one spill file");
+        assertTrue(body.endsWith(spilled.get(0) + "]"));
+        assertArrayEquals(HUGE_ERROR_PAGE, Files.readAllBytes(spilled.get(0)));
+    }
+
+    @Test
+    void checkedBodiesDropTheTail() throws Exception {
+        HttpResponse<String> response = OrderApiTest.CLIENT.send(request("/huge"), new BoundedBodyHandler(LIMIT, null));
+
+        assertTrue(response.body().contains("sha256=" + sha256(HUGE_ERROR_PAGE) + "]"));
+        assertFalse(response.body().contains("full body"));
+        assertEquals(List.of(), spilledFiles());
+    }
+
+    @Test
+    void verifiedSuccessBodiesAreCheckedInFullButKeptBounded() throws Exception {
+        HttpResponse<String> ok = OrderApiTest.CLIENT.send(request("/large-json?ok"), new BoundedBodyHandler(LIMIT, null, STATUS_OK));
+        IOException mismatch = assertThrows(IOException.class,
+                () -> OrderApiTest.CLIENT.send(request("/large-json?late"), new BoundedBodyHandler(LIMIT, null, STATUS_OK)));
+        HttpResponse<String> error = OrderApiTest.CLIENT.send(request("/huge"), new BoundedBodyHandler(LIMIT, null, STATUS_OK));
+
+        assertTrue(ok.body().startsWith("{\"filler\":\"xxx"), ok.body().substring(0, 20));
+        assertTrue(ok.body().contains("\n[truncated: "), "the 2xx body stays bounded");
+        assertTrue(mismatch.getMessage().contains("status should be ok"), mismatch.getMessage());
+        assertTrue(error.body().contains("[truncated: "));
+        assertEquals(List.of(), spilledFiles());
+    }
+
+    @Test
+    void truncationDoesNotSplitACharacter() throws Exception {
+        byte[] body = "abc\u00e9\u20acdef".getBytes(StandardCharsets.UTF_8);
+        for (int limit = 3; limit <= 6; limit++) {
+            BodyCapture capture = new BodyCapture(limit, null);
+            capture.write(body, 0, body.length);
+            String rendered = capture.finish();
+            String head = rendered.substring(0, rendered.indexOf("\n[truncated: "));
+            String expected = limit < 5 ? "abc" : "abc\u00e9";
+            assertEquals(expected, head, "limit " + limit);
+            assertTrue(rendered.contains("[truncated: " + (body.length - expected.getBytes(StandardCharsets.UTF_8).length)
+                    + " more bytes"), rendered);
+        }
+    }
+
+    @Test
+    void streamedChecksSpillThroughTheSameCapture() throws Exception {
+        HttpResponse<InputStream> response = OrderApiTest.CLIENT.send(request("/huge"), HttpResponse.BodyHandlers.ofInputStream());
+
+        JsonExpectations.Verdict verdict = new JsonExpectations(List.of()).check(response, LIMIT, spillDir);
+
+        assertFalse(verdict.evaluated);
+        assertEquals(500, verdict.response.statusCode());
+        assertTrue(verdict.response.body().contains("sha256=" + sha256(HUGE_ERROR_PAGE)));
+        assertArrayEquals(HUGE_ERROR_PAGE, Files.readAllBytes(spilledFiles().get(0)));
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://" + server.getAddress().getHostString() + ":"
+                + server.getAddress().getPort() + path)).build();
+    }
+
+    private List<Path> spilledFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spillDir)) {
+            return files.toList();
+        }
+    }
+
+    private static byte[] errorPage(int size) {
+        StringBuilder sb = new StringBuilder("<html><body><h1>500 Internal Server Error</h1><pre>\n");
+        for (int line = 0; sb.length() < size; line++) {
+            sb.append("at com.example.apptestpipeline.order.OrderController.getOrderStatus(OrderController.java:")
+                    .append(line).append(")\n");
+        }
+        return sb.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A 2xx JSON document whose {@code status} field comes after a 3 MB filler.
+     */
+    private static byte[] largeJson(String status) {
+        return ("{\"filler\":\"" + "x".repeat(3 * 1024 * 1024) + "\",\"status\":\"" + status + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+
+import javax.net.ssl.SSLSession;
+
+/**
+ * {@code HttpResponse<String>} view over a response whose body was consumed as a stream,
+ * carrying the captured body text so {@link CurlReporter} can render it unchanged. The text
+ * can be rendered lazily, on the first {@link #body()} call, so passing responses never pay
+ * for it.
+ */
+final class CapturedResponse implements HttpResponse<String> {
+
+    private final HttpResponse<?> delegate;
+    private BodySource source;
+    private String body;
+
+    CapturedResponse(HttpResponse<?> delegate, String body) {
+        this.delegate = delegate;
+        this.body = body;
+    }
+
+    CapturedResponse(HttpResponse<?> delegate, BodySource source) {
+        this.delegate = delegate;
+        this.source = source;
+    }
+
+    @Override
+    public int statusCode() {
+        return delegate.statusCode();
+    }
+
+    @Override
+    public HttpRequest request() {
+        return delegate.request();
+    }
+
+    @Override
+    public Optional<HttpResponse<String>> previousResponse() {
+        return Optional.empty();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return delegate.headers();
+    }
+
+    @Override
+    public String body() {
+        if (source != null) {
+            try {
+                body = source.render();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to render captured body", e);
+            }
+            source = null;
+        }
+        return body;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return delegate.sslSession();
+    }
+
+    @Override
+    public URI uri() {
+        return delegate.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return delegate.version();
+    }
+
+    interface BodySource {
+        String render() throws IOException;
+    }
+}
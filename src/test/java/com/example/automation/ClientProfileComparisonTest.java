@@ -0,0 +1,82 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Runs the same closed-loop load through every {@link HttpClients.Profile}, once with blocking
+ * {@code send} and once with pipelined {@code sendAsync}, and prints requests/sec for each.
+ * Enabled with {@code -PcompareClients=true}; honours {@code -PuseStub}, {@code -PloadUsers}
+ * and {@code -PloadDuration}.
+ *
+ * <p>Only protocol and executor differ between the rows. Pool size and keep-alive are JVM-wide
+ * and fixed by the first client, so every row runs with the same pool; compare those in
+ * separate runs with {@code -PclientPoolSize}/{@code -PclientKeepAliveSeconds}.
+ */
+@EnabledIfSystemProperty(named = "client.compare", matches = "true")
+class ClientProfileComparisonTest {
+
+    private static final Path COMPARISON_REPORT_PATH = Path.of("build", "reports", "client-comparison.txt");
+
+    @Test
+    void compareClientProfiles() throws Exception {
+        String baseUrl = OrderApiTest.defaultBaseUrl();
+        String body = OrderApiTest.createOrderBody();
+        int users = Integer.getInteger("load.users", 64);
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 5L));
+        Duration warmup = Duration.ofSeconds(1);
+
+        StringBuilder report = new StringBuilder();
+        report.append("=== Client profiles: closed-loop, users=").append(users)
+                .append(", duration=").append(duration.toSeconds()).append("s, target=").append(baseUrl).append(" ===\n");
+        report.append(String.format(Locale.ROOT, "%-14s %-10s %12s %8s %10s %10s%n",
+                "Profile", "Send", "Req/s", "Error%", "p50(ms)", "p99(ms)"));
+        for (HttpClients.Profile profile : HttpClients.Profile.all()) {
+            HttpClient client = HttpClients.create(profile);
+            try {
+                LoadGenerator generator = new LoadGenerator(client, List.of(
+                    new LoadGenerator.Endpoint(OrderApiTest.CREATE_ORDER_ENDPOINT,
+                            () -> OrderApiTest.createOrderRequest(baseUrl, body),
+                            OrderApiTest::assertOrderCreated),
+                    new LoadGenerator.Endpoint(OrderApiTest.ORDER_STATUS_ENDPOINT,
+                            () -> OrderApiTest.orderStatusRequest(baseUrl, OrderApiTest.DEFAULT_ORDER_ID),
+                            OrderApiTest.STATUS_EXPECTATIONS, OrderApiTest::assertOrderStatus)));
+                for (boolean async : new boolean[]{false, true}) {
+                    generator.run(new LoadGenerator.Profile(LoadGenerator.Mode.CLOSED, users, 0, 0, warmup, async));
+                    LoadGenerator.Result result = generator.run(
+                            new LoadGenerator.Profile(LoadGenerator.Mode.CLOSED, users, 0, 0, duration, async));
+                    LatencyHistogram.Snapshot latency = result.endpoints.get(OrderApiTest.ORDER_STATUS_ENDPOINT).latency.snapshot();
+                    report.append(String.format(Locale.ROOT, "%-14s %-10s %12.1f %8.2f %10.2f %10.2f%n",
+                            profile.name, async ? "sendAsync" : "send", result.requestsPerSecond(),
+                            result.errorRate() * 100, latency.p50Nanos / 1e6, latency.p99Nanos / 1e6));
+                }
+            } finally {
+                HttpClients.release(client);
+            }
+        }
+        report.append("Pool size and keep-alive are not compared: every profile ran with ")
+                .append(HttpClients.effectivePoolSettings())
+                .append(" (JVM-wide, fixed by the first client built); compare them in separate runs with -PclientPoolSize/-PclientKeepAliveSeconds\n");
+
+        System.out.println(report);
+        write(report.toString());
+    }
+
+    private static void write(String report) {
+        try {
+            Files.createDirectories(COMPARISON_REPORT_PATH.getParent());
+            Files.writeString(COMPARISON_REPORT_PATH, report, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write client comparison report", e);
+        }
+    }
+}
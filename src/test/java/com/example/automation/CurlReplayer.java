@@ -0,0 +1,235 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Re-sends every request recorded in a curl-report.txt, optionally against another deployment,
+ * and diffs each new response against the recorded {@code Status} and {@code Body}. Requests go
+ * out through {@code sendAsync} paced at {@code ratePerSecond} (unpaced when not positive) with
+ * at most {@code maxInFlight} outstanding, and each diff is written as soon as its response is in.
+ * Bodies are read with the same {@link BoundedBodyHandler} limit used when recording, so
+ * truncated bodies compare by head and digest.
+ *
+ * <p>Run by the {@code replayCurlReport} Gradle task as {@code CurlReplayer <report> <output>},
+ * configured through {@code replay.baseUrl} (default {@code API_BASE_URL}, else the recorded
+ * host), {@code replay.rate} and {@code replay.concurrency}.
+ */
+final class CurlReplayer {
+
+    private static final Pattern SPILL_REFERENCE = Pattern.compile(", full body: [^\\]]*\\]$");
+    private static final int SNIPPET_CHARS = 60;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final double ratePerSecond;
+    private final int maxInFlight;
+
+    CurlReplayer(HttpClient client, String baseUrl, double ratePerSecond, int maxInFlight) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.ratePerSecond = ratePerSecond;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: CurlReplayer <curl-report.txt> <replay-report.txt>");
+        }
+        String baseUrl = System.getProperty("replay.baseUrl", System.getenv("API_BASE_URL"));
+        HttpClient client = HttpClients.create(HttpClients.Profile.http1Pooled());
+        CurlReplayer replayer = new CurlReplayer(client,
+                baseUrl == null || baseUrl.isBlank() ? null : baseUrl,
+                Double.parseDouble(System.getProperty("replay.rate", "0")),
+                Integer.getInteger("replay.concurrency", 32));
+        Path output = Path.of(args[1]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (CurlReportReader reader = CurlReportReader.open(Path.of(args[0]));
+             Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            Summary summary = replayer.replay(reader, writer);
+            String rendered = summary.render();
+            writer.write(rendered);
+            System.out.print(rendered);
+        } finally {
+            HttpClients.release(client);
+        }
+    }
+
+    Summary replay(Iterator<CurlReportReader.Recorded> recorded, Writer out) throws InterruptedException {
+        Summary summary = new Summary();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+        long start = System.nanoTime();
+        for (long i = 0; recorded.hasNext(); i++) {
+            CurlReportReader.Recorded entry = recorded.next();
+            long wait = start + i * intervalNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            send(entry).whenComplete((result, error) -> {
+                try {
+                    Diff diff = error == null ? result : Diff.error(entry, error);
+                    summary.add(diff);
+                    synchronized (out) {
+                        out.write(diff.render());
+                    }
+                } catch (IOException e) {
+                    summary.writeFailure = e;
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        inFlight.acquire(maxInFlight);
+        summary.elapsedNanos = System.nanoTime() - start;
+        if (summary.writeFailure != null) {
+            throw new RuntimeException("Failed to write replay report", summary.writeFailure);
+        }
+        return summary;
+    }
+
+    /**
+     * Never throws: a malformed entry, a request that cannot be built and a {@code sendAsync}
+     * that fails synchronously all complete with an {@link Kind#ERROR} diff.
+     */
+    private CompletableFuture<Diff> send(CurlReportReader.Recorded entry) {
+        if (entry.malformed != null) {
+            return CompletableFuture.completedFuture(Diff.error(entry, entry.malformed));
+        }
+        try {
+            HttpRequest request = entry.toRequest(baseUrl, Duration.ofSeconds(30));
+            return client.sendAsync(request, BoundedBodyHandler.ofCheckedString())
+                    .handle((response, error) -> error != null
+                            ? Diff.error(entry, error)
+                            : Diff.compare(entry, request, response));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(Diff.error(entry, e));
+        }
+    }
+
+    enum Kind {
+        SAME, SAME_NORMALISED, STATUS_CHANGED, BODY_CHANGED, ERROR
+    }
+
+    static final class Diff {
+        final CurlReportReader.Recorded entry;
+        final Kind kind;
+        final Integer status;
+        final String detail;
+
+        private Diff(CurlReportReader.Recorded entry, Kind kind, Integer status, String detail) {
+            this.entry = entry;
+            this.kind = kind;
+            this.status = status;
+            this.detail = detail;
+        }
+
+        static Diff error(CurlReportReader.Recorded entry, Throwable error) {
+            return new Diff(entry, Kind.ERROR, null, error.toString());
+        }
+
+        static Diff compare(CurlReportReader.Recorded entry, HttpRequest request, HttpResponse<String> response) {
+            int status = response.statusCode();
+            if (entry.status == null || entry.status != status) {
+                return new Diff(entry, Kind.STATUS_CHANGED, status,
+                        "status " + (entry.status == null ? "none" : entry.status) + " -> " + status
+                                + " (" + request.method() + " " + request.uri() + ")");
+            }
+            String recorded = comparable(entry.body);
+            String now = comparable(response.body());
+            if (recorded.equals(now)) {
+                return new Diff(entry, Kind.SAME, status, null);
+            }
+            if (FailureIndex.normalize(recorded).equals(FailureIndex.normalize(now))) {
+                return new Diff(entry, Kind.SAME_NORMALISED, status, "only ids, timestamps or numbers differ");
+            }
+            return new Diff(entry, Kind.BODY_CHANGED, status, firstDifference(recorded, now));
+        }
+
+        /**
+         * Fixed means the recorded failure now gets a 2xx answer.
+         */
+        boolean fixed() {
+            return kind == Kind.STATUS_CHANGED && status >= 200 && status < 300
+                    && (entry.status == null || entry.status < 200 || entry.status >= 300);
+        }
+
+        String render() {
+            return "[" + entry.index + "] " + kind.name().toLowerCase(Locale.ROOT).replace('_', '-')
+                    + (fixed() ? " (fixed)" : "") + ": " + entry.testName
+                    + (detail == null ? "" : "\n    " + detail.replace("\n", "\\n")) + "\n";
+        }
+
+        private static String comparable(String body) {
+            return body == null ? "" : SPILL_REFERENCE.matcher(body).replaceFirst("]");
+        }
+
+        private static String firstDifference(String recorded, String now) {
+            int at = 0;
+            int shared = Math.min(recorded.length(), now.length());
+            while (at < shared && recorded.charAt(at) == now.charAt(at)) {
+                at++;
+            }
+            return "body differs at char " + at + ": recorded '" + snippet(recorded, at) + "' now '" + snippet(now, at) + "'";
+        }
+
+        private static String snippet(String text, int at) {
+            return text.substring(Math.min(at, text.length()), Math.min(text.length(), at + SNIPPET_CHARS));
+        }
+    }
+
+    static final class Summary {
+        final LongAdder total = new LongAdder();
+        final LongAdder fixed = new LongAdder();
+        final LongAdder[] byKind = new LongAdder[Kind.values().length];
+        volatile long elapsedNanos;
+        volatile IOException writeFailure;
+
+        Summary() {
+            for (int i = 0; i < byKind.length; i++) {
+                byKind[i] = new LongAdder();
+            }
+        }
+
+        void add(Diff diff) {
+            total.increment();
+            byKind[diff.kind.ordinal()].increment();
+            if (diff.fixed()) {
+                fixed.increment();
+            }
+        }
+
+        long count(Kind kind) {
+            return byKind[kind.ordinal()].sum();
+        }
+
+        String render() {
+            StringBuilder sb = new StringBuilder("\n=== Replay Summary ===\n");
+            sb.append(String.format(Locale.ROOT, "replayed=%d in %.2fs, fixed=%d%n",
+                    total.sum(), elapsedNanos / 1e9, fixed.sum()));
+            for (Kind kind : Kind.values()) {
+                sb.append("  ").append(kind.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                        .append(": ").append(count(kind)).append("\n");
+            }
+            return sb.toString();
+        }
+    }
+}
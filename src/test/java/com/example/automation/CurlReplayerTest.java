@@ -0,0 +1,136 @@
+package com.example.automation;
+
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CurlReplayerTest {
+
+    private static final CurlReporter.FailureDetails DETAILS = new CurlReporter.FailureDetails(
+            "status code in [200, 201]", "200 or 201", "503", "OrderController.java", null, "at getOrderStatus");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsBackRequestsWithQuotesAndMultiLineBodies() throws Exception {
+        try (OrderStubServer stub = OrderStubServer.start(OrderStubServer.Script.healthy().withErrors(1.0, 503))) {
+            String body = "{\n  \"note\": \"it's 'quoted'\",\n\n  \"path\": \"C:\\\\tmp\"\n}";
+            HttpRequest post = HttpRequest.newBuilder(URI.create(stub.baseUrl() + "/api/orders?dry=true"))
+                    .header("Content-Type", "application/json")
+                    .header("X-Trace", "a b; c=\"d\"")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            HttpResponse<String> response = OrderApiTest.CLIENT.send(post, BoundedBodyHandler.ofCheckedString());
+            HttpRequest get = OrderApiTest.orderStatusRequest(stub.baseUrl(), OrderApiTest.DEFAULT_ORDER_ID);
+            Path report = tempDir.resolve("curl-report.txt");
+            Files.writeString(report, CurlReporter.formatFailure("createOrder(TestInfo)", post, body, response,
+                            new AssertionError("boom"), DETAILS)
+                    + "=== Latency Summary ===\nEndpoint: x\n\n"
+                    + CurlReporter.formatFailure("getOrderStatus(TestInfo)", get, null, null, new AssertionError("down"), DETAILS)
+                    + "=== Failure Fingerprints ===\nabc count=2\n", StandardCharsets.UTF_8);
+
+            List<CurlReportReader.Recorded> entries = new ArrayList<>();
+            try (CurlReportReader reader = CurlReportReader.open(report)) {
+                reader.forEachRemaining(entries::add);
+            }
+
+            assertEquals(2, entries.size());
+            CurlReportReader.Recorded first = entries.get(0);
+            assertEquals("createOrder(TestInfo)", first.testName);
+            assertEquals("FAILURE", first.outcome);
+            assertEquals("POST", first.method);
+            assertEquals(post.uri(), first.uri);
+            assertEquals(List.of(Map.entry("Content-Type", "application/json"), Map.entry("X-Trace", "a b; c=\"d\"")),
+                    first.headers.stream().map(h -> Map.entry(h.getKey(), h.getValue())).toList());
+            assertEquals(body, first.requestBody);
+            assertEquals(503, first.status);
+            assertEquals(response.body(), first.body);
+
+            CurlReportReader.Recorded second = entries.get(1);
+            assertEquals("GET", second.method);
+            assertNull(second.requestBody);
+            assertNull(second.status);
+            assertEquals("http://localhost:7000/api/orders/abcd-12345/status",
+                    second.toRequest("http://localhost:7000/", Duration.ofSeconds(1)).uri().toString());
+        }
+    }
+
+    @Test
+    void replayDiffsAgainstRecordedResponses() throws Exception {
+        try (OrderStubServer stub = OrderStubServer.start(OrderStubServer.Script.healthy())) {
+            StringBuilder report = new StringBuilder();
+            stub.script(OrderStubServer.Script.healthy().withErrors(1.0, 503));
+            report.append(record(OrderApiTest.orderStatusRequest(stub.baseUrl(), "down-1"), null));
+            stub.script(OrderStubServer.Script.healthy().withPaymentStatus("PENDING"));
+            report.append(record(OrderApiTest.orderStatusRequest(stub.baseUrl(), "pending-1"), null));
+            stub.script(OrderStubServer.Script.healthy());
+            String body = OrderApiTest.createOrderBody();
+            report.append(record(OrderApiTest.createOrderRequest(stub.baseUrl(), body), body));
+            report.append(record(OrderApiTest.orderStatusRequest(stub.baseUrl(), "same-1"), null));
+            Path reportPath = tempDir.resolve("curl-report.txt");
+            Files.writeString(reportPath, report, StandardCharsets.UTF_8);
+
+            StringWriter out = new StringWriter();
+            CurlReplayer.Summary summary;
+            try (CurlReportReader reader = CurlReportReader.open(reportPath)) {
+                summary = new CurlReplayer(OrderApiTest.CLIENT, stub.baseUrl(), 1000, 2).replay(reader, out);
+            }
+
+            assertEquals(4, summary.total.sum(), out.toString());
+            assertEquals(1, summary.count(CurlReplayer.Kind.STATUS_CHANGED), out.toString());
+            assertEquals(1, summary.fixed.sum());
+            assertEquals(1, summary.count(CurlReplayer.Kind.BODY_CHANGED), out.toString());
+            assertEquals(1, summary.count(CurlReplayer.Kind.SAME_NORMALISED), out.toString());
+            assertEquals(1, summary.count(CurlReplayer.Kind.SAME), out.toString());
+            assertTrue(out.toString().contains("status-changed (fixed)"));
+            assertTrue(out.toString().contains("recorded 'PENDING"), out.toString());
+            assertTrue(summary.render().contains("replayed=4"));
+        }
+    }
+
+    @Test
+    void malformedEntriesBecomeErrorDiffs() throws Exception {
+        try (OrderStubServer stub = OrderStubServer.start(OrderStubServer.Script.healthy())) {
+            Path reportPath = tempDir.resolve("curl-report.txt");
+            Files.writeString(reportPath, "=== Test: no-url @ 2026-10-17T10:00:00Z ===\nRequest (curl):\ncurl -X GET\n\n"
+                    + "=== Test: bad-header @ 2026-10-17T10:00:01Z ===\nRequest (curl):\ncurl -H 'no colon' 'http://x/a'\n\n"
+                    + "=== Test: dangling @ 2026-10-17T10:00:02Z ===\nRequest (curl):\ncurl 'http://x/a' -X\n\n"
+                    + "=== Test: unclosed @ 2026-10-17T10:00:03Z ===\nRequest (curl):\ncurl 'http://x/a' -d '{\n\n"
+                    + "=== Test: bad-status @ 2026-10-17T10:00:04Z ===\nRequest (curl):\ncurl 'http://x/a'\n\n"
+                    + "Response:\nStatus: teapot\nBody:\n{}\n\n"
+                    + record(OrderApiTest.orderStatusRequest(stub.baseUrl(), "same-1"), null), StandardCharsets.UTF_8);
+
+            StringWriter out = new StringWriter();
+            CurlReplayer.Summary summary;
+            try (CurlReportReader reader = CurlReportReader.open(reportPath)) {
+                summary = new CurlReplayer(OrderApiTest.CLIENT, stub.baseUrl(), 0, 2).replay(reader, out);
+            }
+
+            assertEquals(6, summary.total.sum(), out.toString());
+            assertEquals(5, summary.count(CurlReplayer.Kind.ERROR), out.toString());
+            assertTrue(out.toString().contains("unclosed quote"), out.toString());
+            assertEquals(1, summary.count(CurlReplayer.Kind.SAME), out.toString());
+            assertTrue(out.toString().contains("Unreadable status 'teapot'"), out.toString());
+        }
+    }
+
+    private static String record(HttpRequest request, String body) throws Exception {
+        HttpResponse<String> response = OrderApiTest.CLIENT.send(request, BoundedBodyHandler.ofCheckedString());
+        return CurlReporter.formatFailure("replayed", request, body, response, new AssertionError("recorded"), DETAILS);
+    }
+}
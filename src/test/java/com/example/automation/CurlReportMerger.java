@@ -0,0 +1,368 @@
+package com.example.automation;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Joins the report segments of a split run ({@link Shards}) into one curl-report.txt. Entries of
+ * all segments are interleaved by their {@code @ time} stamp with one pending entry per segment
+ * in memory, and their bytes are copied verbatim. Each segment's summary sections follow under an
+ * {@code === Segment: <name> ===} heading. The segments' curl-report.idx files are combined into
+ * one index: offsets point into the merged file, and a fingerprint seen by several segments keeps
+ * its earliest entry and the summed count.
+ *
+ * <p>Run by the {@code mergeCurlReports} Gradle task as
+ * {@code CurlReportMerger <segments dir> <curl-report.txt> <curl-report.idx>}.
+ */
+final class CurlReportMerger {
+
+    private static final String ENTRY_PREFIX = "=== Test: ";
+    /** Summary sections CurlReporter appends after the entries; an entry runs until one of these or the next entry. */
+    private static final List<String> SUMMARY_HEADINGS = List.of(RequestTimings.SUMMARY_HEADING, FailureIndex.SUMMARY_HEADING);
+    private static final String FAILURE_OUTCOME = "Outcome: FAILURE";
+    private static final Pattern SEGMENT_FILE = Pattern.compile("curl-report\\.(.+)\\.txt");
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+
+    private CurlReportMerger() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: CurlReportMerger <segments dir> <curl-report.txt> <curl-report.idx>");
+        }
+        Summary summary = merge(segments(Path.of(args[0])), Path.of(args[1]), Path.of(args[2]));
+        System.out.println(summary.render());
+    }
+
+    /**
+     * The {@code curl-report.<segment>.txt} files in {@code dir}, by name.
+     */
+    static List<Path> segments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> SEGMENT_FILE.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static Summary merge(List<Path> segments, Path report, Path index) throws IOException {
+        List<Segment> opened = new ArrayList<>();
+        PriorityQueue<Segment> pending = new PriorityQueue<>(
+                Comparator.comparing((Segment segment) -> segment.time).thenComparingInt(segment -> segment.order));
+        Map<String, Indexed> fingerprints = new LinkedHashMap<>();
+        Summary summary = new Summary(segments.size());
+        long summaryOffset = -1;
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(report), READ_BUFFER_BYTES)) {
+            for (Path path : segments) {
+                Segment segment = new Segment(opened.size(), path);
+                opened.add(segment);
+                if (segment.advance()) {
+                    pending.add(segment);
+                }
+            }
+            long position = 0;
+            Segment next;
+            while ((next = pending.poll()) != null) {
+                List<String[]> indexed = next.indexed.remove(next.entryOffset);
+                if (indexed != null) {
+                    for (String[] fields : indexed) {
+                        combine(fingerprints, fields, position);
+                    }
+                }
+                out.write(next.entry);
+                position += next.entry.length;
+                summary.entries++;
+                if (next.failed) {
+                    summary.failures++;
+                }
+                if (next.advance()) {
+                    pending.add(next);
+                }
+            }
+            for (Segment segment : opened) {
+                // Fingerprints whose entry was not found (or never written) still count.
+                segment.indexed.values().forEach(lines -> lines.forEach(fields -> combine(fingerprints, fields, -1)));
+                if (segment.summaries.size() == 0) {
+                    continue;
+                }
+                if (summaryOffset < 0) {
+                    summaryOffset = position;
+                }
+                byte[] heading = ("=== Segment: " + segment.name + " ===\n").getBytes(StandardCharsets.UTF_8);
+                out.write(heading);
+                segment.summaries.writeTo(out);
+                position += heading.length + segment.summaries.size();
+            }
+        } finally {
+            for (Segment segment : opened) {
+                segment.close();
+            }
+        }
+        writeIndex(index, fingerprints.values(), summaryOffset);
+        return summary;
+    }
+
+    private static void combine(Map<String, Indexed> fingerprints, String[] fields, long mergedOffset) {
+        Indexed indexed = fingerprints.computeIfAbsent(fields[0], Indexed::new);
+        if (indexed.offset < 0 && mergedOffset >= 0) {
+            indexed.offset = mergedOffset;
+            indexed.length = Long.parseLong(fields[2]);
+        }
+        indexed.count += Long.parseLong(fields[3]);
+        indexed.firstSeen = Math.min(indexed.firstSeen, Long.parseLong(fields[4]));
+        indexed.lastSeen = Math.max(indexed.lastSeen, Long.parseLong(fields[5]));
+        if (indexed.status == null) {
+            indexed.status = fields[6];
+            indexed.assertion = fields[7];
+        }
+    }
+
+    private static void writeIndex(Path path, Iterable<Indexed> fingerprints, long summaryOffset) throws IOException {
+        List<Indexed> sorted = new ArrayList<>();
+        fingerprints.forEach(sorted::add);
+        sorted.sort(Comparator.comparingLong((Indexed indexed) -> indexed.count).reversed()
+                .thenComparingLong(indexed -> indexed.firstSeen));
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(FailureIndex.INDEX_HEADER);
+            writer.write("# summary\t" + summaryOffset + "\n");
+            for (Indexed indexed : sorted) {
+                writer.write(indexed.fingerprint + "\t" + indexed.offset + "\t" + indexed.length
+                        + "\t" + indexed.count + "\t" + indexed.firstSeen + "\t" + indexed.lastSeen
+                        + "\t" + indexed.status + "\t" + indexed.assertion + "\n");
+            }
+        }
+    }
+
+    /**
+     * True at the next entry or a summary heading; other {@code === } lines, e.g. inside a
+     * response body, stay part of the entry.
+     */
+    private static boolean endsEntry(byte[] line) {
+        if (startsWith(line, ENTRY_PREFIX)) {
+            return true;
+        }
+        for (String heading : SUMMARY_HEADINGS) {
+            if (startsWith(line, heading) && isBlank(line, heading.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBlank(byte[] line, int from) {
+        for (int i = from; i < line.length; i++) {
+            if (line[i] != '\r' && line[i] != '\n') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWith(byte[] line, String prefix) {
+        if (line.length < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (line[i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One segment file read entry by entry; lines outside entries are kept as its summaries.
+     */
+    private static final class Segment implements Closeable {
+        final int order;
+        final String name;
+        /** The segment's idx lines, by the offset of the entry they point at. */
+        final Map<Long, List<String[]>> indexed = new HashMap<>();
+        final ByteArrayOutputStream summaries = new ByteArrayOutputStream();
+        private final InputStream in;
+        private final byte[] buffer = new byte[READ_BUFFER_BYTES];
+        private int start;
+        private int end;
+        private long consumed;
+        private long lineOffset;
+        private byte[] pushedBack;
+        private long pushedBackOffset;
+
+        byte[] entry;
+        long entryOffset;
+        Instant time = Instant.MIN;
+        boolean failed;
+
+        Segment(int order, Path path) throws IOException {
+            this.order = order;
+            Matcher matcher = SEGMENT_FILE.matcher(path.getFileName().toString());
+            this.name = matcher.matches() ? matcher.group(1) : path.getFileName().toString();
+            Path idx = path.resolveSibling("curl-report." + name + ".idx");
+            if (Files.exists(idx)) {
+                try (BufferedReader reader = Files.newBufferedReader(idx, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String[] fields = line.split("\t", 8);
+                        if (!line.startsWith("#") && fields.length == 8) {
+                            indexed.computeIfAbsent(Long.parseLong(fields[1]), offset -> new ArrayList<>()).add(fields);
+                        }
+                    }
+                }
+            }
+            this.in = Files.newInputStream(path);
+        }
+
+        /**
+         * Reads the next entry into {@link #entry}; false once the segment is exhausted.
+         */
+        boolean advance() throws IOException {
+            byte[] line = nextLine();
+            while (line != null && !startsWith(line, ENTRY_PREFIX)) {
+                summaries.write(line);
+                line = nextLine();
+            }
+            if (line == null) {
+                entry = null;
+                return false;
+            }
+            entryOffset = lineOffset;
+            time = parseTime(line, time);
+            failed = false;
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            text.write(line);
+            while ((line = nextLine()) != null && !endsEntry(line)) {
+                failed |= startsWith(line, FAILURE_OUTCOME);
+                text.write(line);
+            }
+            pushedBack = line;
+            pushedBackOffset = lineOffset;
+            entry = text.toByteArray();
+            return true;
+        }
+
+        /**
+         * Entry stamps look like {@code === Test: name @ 2026-10-17T12:00:01.5+02:00 ===}; an
+         * unreadable stamp keeps the entry at the previous one's time.
+         */
+        private static Instant parseTime(byte[] header, Instant previous) {
+            String text = new String(header, StandardCharsets.UTF_8).strip();
+            int at = text.lastIndexOf(" @ ");
+            if (at < 0 || !text.endsWith(" ===")) {
+                return previous;
+            }
+            try {
+                return OffsetDateTime.parse(text.substring(at + 3, text.length() - 4)).toInstant();
+            } catch (DateTimeParseException e) {
+                return previous;
+            }
+        }
+
+        /**
+         * The next line with its {@code \n}, bytes untouched; sets {@link #lineOffset}.
+         */
+        private byte[] nextLine() throws IOException {
+            if (pushedBack != null) {
+                byte[] line = pushedBack;
+                pushedBack = null;
+                lineOffset = pushedBackOffset;
+                return line;
+            }
+            lineOffset = consumed;
+            ByteArrayOutputStream line = null;
+            while (true) {
+                if (start == end) {
+                    end = in.read(buffer);
+                    start = 0;
+                    if (end <= 0) {
+                        end = 0;
+                        break;
+                    }
+                }
+                int newline = start;
+                while (newline < end && buffer[newline] != '\n') {
+                    newline++;
+                }
+                int stop = newline < end ? newline + 1 : end;
+                if (line == null) {
+                    line = new ByteArrayOutputStream(Math.max(stop - start, 128));
+                }
+                line.write(buffer, start, stop - start);
+                start = stop;
+                if (newline < end) {
+                    break;
+                }
+            }
+            if (line == null || line.size() == 0) {
+                return null;
+            }
+            consumed += line.size();
+            return line.toByteArray();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static final class Indexed {
+        final String fingerprint;
+        long offset = -1;
+        long length;
+        long count;
+        long firstSeen = Long.MAX_VALUE;
+        long lastSeen = Long.MIN_VALUE;
+        String status;
+        String assertion;
+
+        Indexed(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    static final class Summary {
+        final int segments;
+        long entries;
+        long failures;
+
+        Summary(int segments) {
+            this.segments = segments;
+        }
+
+        String render() {
+            return String.format(Locale.ROOT, "Merged %d entries (%d failures) from %d segments", entries, failures, segments);
+        }
+    }
+}
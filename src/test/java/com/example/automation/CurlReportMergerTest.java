@@ -0,0 +1,67 @@
+package com.example.automation;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CurlReportMergerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void interleavesSegmentsByTimeAndRebuildsTheIndex() throws Exception {
+        Path segments = tempDir.resolve("segments");
+        Files.createDirectories(segments);
+        String a1 = entry("a1", "2026-10-17T12:00:01+02:00", "FAILURE", "Body:\r\nline with CRLF\r\n");
+        String a2 = entry("a2", "2026-10-17T10:00:03Z", "FAILURE", "Body:\n=== not a heading ===\n");
+        String b1 = entry("b1", "2026-10-17T10:00:00Z", "FAILURE", "Body:\n\u00fcn\u00efcode\n");
+        Files.writeString(segments.resolve("curl-report.shard-0-of-2.txt"),
+                a1 + a2 + "=== Failure Fingerprints ===\nfp1 count=2\n", StandardCharsets.UTF_8);
+        Files.writeString(segments.resolve("curl-report.shard-0-of-2.idx"), FailureIndex.INDEX_HEADER
+                + "# summary\t" + bytes(a1 + a2) + "\n"
+                + "fp1\t0\t" + bytes(a1) + "\t2\t100\t300\tnone\tstatus code in [200, 201]\n"
+                + "fp2\t" + bytes(a1) + "\t" + bytes(a2) + "\t1\t200\t200\t503\tbody not empty\n", StandardCharsets.UTF_8);
+        Files.writeString(segments.resolve("curl-report.shard-1-of-2.txt"),
+                b1 + "=== Failure Fingerprints ===\nfp1 count=1\n", StandardCharsets.UTF_8);
+        Files.writeString(segments.resolve("curl-report.shard-1-of-2.idx"), FailureIndex.INDEX_HEADER
+                + "fp1\t0\t" + bytes(b1) + "\t1\t50\t50\tnone\tstatus code in [200, 201]\n", StandardCharsets.UTF_8);
+        Files.writeString(segments.resolve("latency.shard-1-of-2.json"), "{}");
+
+        List<Path> found = CurlReportMerger.segments(segments);
+        assertEquals(2, found.size());
+        Path report = tempDir.resolve("curl-report.txt");
+        Path index = tempDir.resolve("curl-report.idx");
+        CurlReportMerger.Summary summary = CurlReportMerger.merge(found, report, index);
+
+        assertEquals(3, summary.entries);
+        assertEquals(3, summary.failures);
+        String merged = Files.readString(report, StandardCharsets.UTF_8);
+        // 12:00:01+02:00 is 10:00:01Z, between b1 and a2.
+        String entries = b1 + a1 + a2;
+        assertTrue(merged.startsWith(entries), merged);
+        assertEquals("=== Segment: shard-0-of-2 ===\n=== Failure Fingerprints ===\nfp1 count=2\n"
+                + "=== Segment: shard-1-of-2 ===\n=== Failure Fingerprints ===\nfp1 count=1\n", merged.substring(entries.length()));
+
+        List<String> lines = Files.readAllLines(index, StandardCharsets.UTF_8);
+        assertEquals("# summary\t" + bytes(entries), lines.get(1));
+        assertEquals("fp1\t0\t" + bytes(b1) + "\t3\t50\t300\tnone\tstatus code in [200, 201]", lines.get(2));
+        assertEquals("fp2\t" + bytes(b1 + a1) + "\t" + bytes(a2) + "\t1\t200\t200\t503\tbody not empty", lines.get(3));
+        assertEquals(4, lines.size());
+    }
+
+    private static String entry(String name, String time, String outcome, String body) {
+        return "=== Test: " + name + " @ " + time + " ===\nOutcome: " + outcome + "\nRequest (curl):\ncurl -X GET 'http://x/" + name
+                + "'\n\nResponse:\nStatus: 503\n" + body + "\n";
+    }
+
+    private static long bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.automation;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Streams the entries of a curl-report.txt back into requests. Each {@code === Test: ...}
+ * entry yields its curl command (tokenised with POSIX shell quoting, so the
+ * {@code '"'"'} escape written by {@link CurlReporter#toCurl} round-trips, as do bodies
+ * spanning several lines) and the recorded {@code Status}/{@code Body}. Summary sections and
+ * anything else between entries are skipped; only one entry is held in memory at a time. An
+ * entry that cannot be parsed is still returned, with {@link Recorded#malformed} set, so one
+ * bad entry does not end the stream.
+ */
+final class CurlReportReader implements Iterator<CurlReportReader.Recorded>, Closeable {
+
+    private static final String ENTRY_PREFIX = "=== Test: ";
+    /** Headers java.net.http sets itself and refuses from callers. */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final BufferedReader reader;
+    private String pendingLine;
+    private Recorded next;
+    private long entries;
+
+    CurlReportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    static CurlReportReader open(Path report) throws IOException {
+        return new CurlReportReader(Files.newBufferedReader(report, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readEntry();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read curl report", e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Recorded next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Recorded entry = next;
+        next = null;
+        return entry;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Recorded readEntry() throws IOException {
+        String line;
+        while ((line = nextLine()) != null && !line.startsWith(ENTRY_PREFIX)) {
+            // Skip summaries and anything else between entries.
+        }
+        if (line == null) {
+            return null;
+        }
+        entries++;
+        String header = line.substring(ENTRY_PREFIX.length());
+        int at = header.lastIndexOf(" @ ");
+        String testName = at >= 0 ? header.substring(0, at) : header.replaceFirst(" ===$", "");
+
+        String outcome = null;
+        while ((line = nextLine()) != null && !line.equals("Request (curl):")) {
+            if (line.startsWith("Outcome: ")) {
+                outcome = line.substring("Outcome: ".length());
+            } else if (line.startsWith(ENTRY_PREFIX)) {
+                pendingLine = line;
+                return readEntry();
+            }
+        }
+        ShellWords words = new ShellWords();
+        boolean complete = false;
+        while (!complete && (line = nextLine()) != null) {
+            if (line.startsWith(ENTRY_PREFIX)) {
+                // An unclosed quote would otherwise swallow every entry after this one.
+                pendingLine = line;
+                break;
+            }
+            complete = words.feed(line);
+        }
+        if (!complete) {
+            return new Recorded(entries, testName, outcome, new IllegalArgumentException(
+                    "Unterminated curl command (unclosed quote) in entry " + entries + " (" + testName + ")"));
+        }
+        Recorded recorded;
+        try {
+            recorded = new Recorded(entries, testName, outcome, words.words());
+        } catch (RuntimeException e) {
+            recorded = new Recorded(entries, testName, outcome, e);
+        }
+
+        while ((line = nextLine()) != null && line.isEmpty()) {
+            // Blank lines after the command.
+        }
+        if (line == null || !line.startsWith("Response:")) {
+            pendingLine = line;
+            return recorded;
+        }
+        if (!line.equals("Response:")) {
+            return recorded; // "Response: none (request failed)"
+        }
+        while ((line = nextLine()) != null && !line.equals("Body:")) {
+            if (line.startsWith("Status: ")) {
+                String status = line.substring("Status: ".length()).trim();
+                try {
+                    recorded.status = Integer.valueOf(status);
+                } catch (NumberFormatException e) {
+                    recorded.malformed = new IllegalArgumentException("Unreadable status '" + status + "' in entry "
+                            + recorded.index + " (" + testName + ")", e);
+                }
+            }
+        }
+        StringBuilder body = new StringBuilder();
+        boolean first = true;
+        while ((line = nextLine()) != null && !line.startsWith("Error: ") && !line.startsWith("Repo: ")) {
+            if (line.startsWith(ENTRY_PREFIX)) {
+                // A truncated entry without its Error line; the next one starts here.
+                pendingLine = line;
+                break;
+            }
+            if (!first) {
+                body.append('\n');
+            }
+            body.append(line);
+            first = false;
+        }
+        recorded.body = body.toString();
+        return recorded;
+    }
+
+    private String nextLine() throws IOException {
+        if (pendingLine != null) {
+            String line = pendingLine;
+            pendingLine = null;
+            return line;
+        }
+        return reader.readLine();
+    }
+
+    /**
+     * One report entry: the request rebuilt from its curl command plus the recorded response
+     * ({@code status} is null when the request failed without a response). {@code malformed}
+     * holds the parse error of an entry that cannot be replayed; its request fields are then
+     * unset.
+     */
+    static final class Recorded {
+        final long index;
+        final String testName;
+        final String outcome;
+        final String method;
+        final URI uri;
+        final List<Map.Entry<String, String>> headers;
+        final String requestBody;
+        Integer status;
+        String body;
+        RuntimeException malformed;
+
+        Recorded(long index, String testName, String outcome, RuntimeException malformed) {
+            this.index = index;
+            this.testName = testName;
+            this.outcome = outcome;
+            this.method = null;
+            this.uri = null;
+            this.headers = List.of();
+            this.requestBody = null;
+            this.malformed = malformed;
+        }
+
+        Recorded(long index, String testName, String outcome, List<String> curl) {
+            this.index = index;
+            this.testName = testName;
+            this.outcome = outcome;
+            String method = null;
+            URI uri = null;
+            String requestBody = null;
+            List<Map.Entry<String, String>> headers = new ArrayList<>();
+            for (int i = 1; i < curl.size(); i++) {
+                String word = curl.get(i);
+                switch (word) {
+                    case "-X", "--request" -> method = argument(curl, ++i, word);
+                    case "-H", "--header" -> {
+                        String header = argument(curl, ++i, word);
+                        int colon = header.indexOf(':');
+                        if (colon <= 0) {
+                            throw new IllegalArgumentException("Header without a name in curl command of entry "
+                                    + index + " (" + testName + "): " + header);
+                        }
+                        headers.add(new AbstractMap.SimpleImmutableEntry<>(
+                                header.substring(0, colon).trim(), header.substring(colon + 1).trim()));
+                    }
+                    case "-d", "--data", "--data-raw", "--data-binary" -> requestBody = argument(curl, ++i, word);
+                    default -> {
+                        if (!word.startsWith("-")) {
+                            uri = URI.create(word);
+                        }
+                    }
+                }
+            }
+            if (uri == null) {
+                throw new IllegalArgumentException("No URL in curl command of entry " + index + " (" + testName + ")");
+            }
+            this.method = method != null ? method : requestBody != null ? "POST" : "GET";
+            this.uri = uri;
+            this.headers = headers;
+            this.requestBody = requestBody;
+        }
+
+        private String argument(List<String> curl, int i, String option) {
+            if (i >= curl.size()) {
+                throw new IllegalArgumentException("Missing value for " + option + " in curl command of entry "
+                        + index + " (" + testName + ")");
+            }
+            return curl.get(i);
+        }
+
+        /**
+         * Rebuilds the request, pointed at {@code baseUrl} (scheme, host and port only) when given.
+         */
+        HttpRequest toRequest(String baseUrl, Duration timeout) {
+            URI target = baseUrl == null ? uri : URI.create(baseUrl.replaceAll("/+$", "") + uri.getRawPath()
+                    + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery()));
+            HttpRequest.Builder builder = HttpRequest.newBuilder(target)
+                    .timeout(timeout)
+                    .method(method, requestBody == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(requestBody));
+            for (Map.Entry<String, String> header : headers) {
+                if (!RESTRICTED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                    builder.header(header.getKey(), header.getValue());
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Incremental POSIX word splitting: single quotes are literal, double quotes honour
+     * backslash escapes, adjacent quoted and bare segments join into one word.
+     */
+    static final class ShellWords {
+        private final List<String> words = new ArrayList<>();
+        private final StringBuilder word = new StringBuilder();
+        private boolean inWord;
+        private char quote;
+
+        /**
+         * Consumes one line; returns true once the command is complete (no quote left open).
+         */
+        boolean feed(String line) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quote == '\'') {
+                    if (c == '\'') {
+                        quote = 0;
+                    } else {
+                        word.append(c);
+                    }
+                } else if (quote == '"') {
+                    if (c == '"') {
+                        quote = 0;
+                    } else if (c == '\\' && i + 1 < line.length() && "\"\\$`".indexOf(line.charAt(i + 1)) >= 0) {
+                        word.append(line.charAt(++i));
+                    } else {
+                        word.append(c);
+                    }
+                } else if (c == '\'' || c == '"') {
+                    quote = c;
+                    inWord = true;
+                } else if (Character.isWhitespace(c)) {
+                    endWord();
+                } else if (c == '\\' && i + 1 < line.length()) {
+                    word.append(line.charAt(++i));
+                    inWord = true;
+                } else {
+                    word.append(c);
+                    inWord = true;
+                }
+            }
+            if (quote != 0) {
+                word.append('\n');
+                return false;
+            }
+            endWord();
+            return true;
+        }
+
+        List<String> words() {
+            return words;
+        }
+
+        private void endWord() {
+            if (inWord) {
+                words.add(word.toString());
+                word.setLength(0);
+                inWord = false;
+            }
+        }
+    }
+}
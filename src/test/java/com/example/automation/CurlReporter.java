@@ -4,141 +4,244 @@ import java.io.IOException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 
 final class CurlReporter {
 
-    private static final Path REPORT_PATH = Path.of("build", "reports", "curl-report.txt");
-    private static final String PIPELINE_REPO = "https://github.com/prudhviraj55/app-test-pipeline.git";
-    private static final String AUTOMATION_SUITE_REPO = "https://github.com/prudhviraj55/api-automation.git";
+    private static final Path REPORT_PATH = Shards.local(Path.of("build", "reports", "curl-report.txt"));
+    static final String PIPELINE_REPO = "https://github.com/prudhviraj55/app-test-pipeline.git";
+    static final String AUTOMATION_SUITE_REPO = "https://github.com/prudhviraj55/api-automation.git";
     private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    // Identical failures are written once and counted in the fingerprint section; -PreportDedup=false keeps every entry.
+    private static final boolean DEDUP = !"false".equalsIgnoreCase(System.getProperty("report.dedup"));
+    private static final FailureIndex FAILURES = new FailureIndex();
 
     private CurlReporter() {
     }
 
-    static void resetReport() {
+    private static volatile ReportSink sink;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(CurlReporter::closeReport, "curl-report-shutdown"));
+    }
+
+    static synchronized void resetReport() {
         try {
-            Files.createDirectories(REPORT_PATH.getParent());
-            Files.writeString(REPORT_PATH, "", StandardCharsets.UTF_8,
-                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            closeReport();
+            FAILURES.clear();
+            sink = ReportSink.open(REPORT_PATH, true);
         } catch (IOException e) {
             throw new RuntimeException("Failed to reset curl report", e);
         }
     }
 
-    static synchronized void log(String testName, HttpRequest request, String requestBody,
-                                 HttpResponse<String> response, String outcome) {
+    /**
+     * Blocks until every entry logged so far has been written to the report file.
+     */
+    static void flushReport() {
+        ReportSink current = sink;
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    static synchronized void closeReport() {
+        ReportSink current = sink;
+        sink = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to close curl report", e);
+            }
+        }
+    }
+
+    private static ReportSink sink() throws IOException {
+        ReportSink current = sink;
+        if (current != null) {
+            return current;
+        }
+        synchronized (CurlReporter.class) {
+            if (sink == null) {
+                sink = ReportSink.open(REPORT_PATH, false);
+            }
+            return sink;
+        }
+    }
+
+    /**
+     * Appends a pre-rendered summary section (e.g. latency percentiles) after the test entries.
+     */
+    static void logLatencySummary(String summary) {
+        if (summary == null || summary.isEmpty()) {
+            return;
+        }
+        try {
+            sink().append(summary);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write latency summary", e);
+        }
+    }
+
+    /**
+     * Appends the failure fingerprint section and writes curl-report.idx pointing at each
+     * distinct failure's full entry.
+     */
+    static void logFailureIndex() {
+        try {
+            long summaryOffset = FAILURES.isEmpty() ? -1 : sink().append(FAILURES.renderSummary());
+            FAILURES.writeIndex(FailureIndex.INDEX_PATH, summaryOffset);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write failure fingerprints", e);
+        }
+    }
+
+    static void log(String testName, HttpRequest request, String requestBody,
+                    HttpResponse<String> response, String outcome) {
         if ("SUCCESS".equalsIgnoreCase(outcome)) {
             return; // Only keep failures in the report.
         }
+        String entry = formatEntry(testName, request, requestBody, response, outcome);
+        try {
+            sink().append(entry);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write curl report", e);
+        }
+    }
+
+    static String formatEntry(String testName, HttpRequest request, String requestBody,
+                              HttpResponse<String> response, String outcome) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("=== Test: ").append(testName).append(" @ ")
+                .append(TIME_FORMAT.format(ZonedDateTime.now())).append(" ===\n");
+        sb.append("Outcome: ").append(outcome).append("\n");
+        sb.append("Request (curl):\n");
+        sb.append(toCurl(request, requestBody)).append("\n\n");
+
+        sb.append("Response:\n");
+        sb.append("Status: ").append(response.statusCode()).append("\n");
+        sb.append("Headers:\n");
+        response.headers().map().forEach((key, values) ->
+                sb.append("  ").append(key).append(": ").append(String.join(", ", values)).append("\n"));
+        sb.append("Body:\n").append(response.body()).append("\n");
+
+        // Attach repo reference at end of the test log entry.
+        sb.append("Repo: ").append(PIPELINE_REPO).append("\n");
+        sb.append("Automation Repo: ").append(AUTOMATION_SUITE_REPO).append("\n\n");
+
+        return sb.toString();
+    }
+
+    static void logFailure(String testName, HttpRequest request, String requestBody,
+                           HttpResponse<String> response, Throwable error, FailureDetails failureDetails) {
+        boolean described = failureDetails != null && failureDetails.assertion != null;
+        SuiteMetrics.failure(described ? failureDetails.assertion : error.getClass().getSimpleName());
+        FailureIndex.Occurrence occurrence = null;
+        if (DEDUP) {
+            Integer status = response == null ? null : response.statusCode();
+            String assertion = described
+                    ? failureDetails.assertion
+                    : error.getClass().getSimpleName() + ": " + FailureIndex.normalize(error.getMessage());
+            String fingerprint = FailureIndex.fingerprint(assertion, status,
+                    failureDetails == null ? null : failureDetails.suspectFile,
+                    response == null ? null : response.body());
+            occurrence = FAILURES.record(fingerprint, testName, assertion, status, System.currentTimeMillis());
+            if (!occurrence.isFirst) {
+                return;
+            }
+        }
+        boolean written = false;
         try {
-            Files.createDirectories(REPORT_PATH.getParent());
-            StringBuilder sb = new StringBuilder();
+            String entry = formatFailure(testName, request, requestBody, response, error, failureDetails);
+            long offset = sink().append(entry);
+            if (occurrence != null) {
+                occurrence.failure.located(offset, entry.getBytes(StandardCharsets.UTF_8).length);
+            }
+            written = true;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write curl failure report", e);
+        } finally {
+            if (!written && occurrence != null) {
+                // Otherwise every later identical failure would count against an entry that was never written.
+                FAILURES.forget(occurrence);
+            }
+        }
+    }
+
+    static String formatFailure(String testName, HttpRequest request, String requestBody,
+                                HttpResponse<String> response, Throwable error, FailureDetails failureDetails) {
+        StringBuilder sb = new StringBuilder();
 
-            sb.append("=== Test: ").append(testName).append(" @ ")
-                    .append(TIME_FORMAT.format(ZonedDateTime.now())).append(" ===\n");
-            sb.append("Outcome: ").append(outcome).append("\n");
-            sb.append("Request (curl):\n");
-            sb.append(toCurl(request, requestBody)).append("\n\n");
+        sb.append("=== Test: ").append(testName).append(" @ ")
+                .append(TIME_FORMAT.format(ZonedDateTime.now())).append(" ===\n");
+        sb.append("Outcome: FAILURE").append("\n");
+        sb.append("Request (curl):\n");
+        sb.append(toCurl(request, requestBody)).append("\n\n");
 
+        if (response != null) {
             sb.append("Response:\n");
             sb.append("Status: ").append(response.statusCode()).append("\n");
             sb.append("Headers:\n");
             response.headers().map().forEach((key, values) ->
                     sb.append("  ").append(key).append(": ").append(String.join(", ", values)).append("\n"));
             sb.append("Body:\n").append(response.body()).append("\n");
-
-            // Attach repo reference at end of the test log entry.
-            sb.append("Repo: ").append(PIPELINE_REPO).append("\n");
-            sb.append("Automation Repo: ").append(AUTOMATION_SUITE_REPO).append("\n\n");
-
-            Files.writeString(REPORT_PATH, sb.toString(), StandardCharsets.UTF_8,
-                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to write curl report", e);
+        } else {
+            sb.append("Response: none (request failed)\n");
         }
-    }
 
-    static synchronized void logFailure(String testName, HttpRequest request, String requestBody,
-                                        HttpResponse<String> response, Throwable error, FailureDetails failureDetails) {
-        try {
-            Files.createDirectories(REPORT_PATH.getParent());
-            StringBuilder sb = new StringBuilder();
-
-            sb.append("=== Test: ").append(testName).append(" @ ")
-                    .append(TIME_FORMAT.format(ZonedDateTime.now())).append(" ===\n");
-            sb.append("Outcome: FAILURE").append("\n");
-            sb.append("Request (curl):\n");
-            sb.append(toCurl(request, requestBody)).append("\n\n");
-
-            if (response != null) {
-                sb.append("Response:\n");
-                sb.append("Status: ").append(response.statusCode()).append("\n");
-                sb.append("Headers:\n");
-                response.headers().map().forEach((key, values) ->
-                        sb.append("  ").append(key).append(": ").append(String.join(", ", values)).append("\n"));
-                sb.append("Body:\n").append(response.body()).append("\n");
-            } else {
-                sb.append("Response: none (request failed)\n");
-            }
-
-            sb.append("Error: ").append(error.getClass().getSimpleName())
-                    .append(" - ").append(error.getMessage()).append("\n");
-            sb.append("Failure Summary:\n");
-sb.append("- Assertion: ").append(valueOrDefault(failureDetails == null ? null : failureDetails.assertion, "unknown")).append(" ==> expected: <").append(failureDetails.expected).append("> but was: <").append(failureDetails.actual).append(">\n");
-            sb.append("- Assertion: ").append(valueOrDefault(failureDetails == null ? null : failureDetails.assertion, "unknown")).append("\n");
-            sb.append("- Expected: ").append(valueOrDefault(failureDetails == null ? null : failureDetails.expected, "unknown")).append("\n");
-            sb.append("- Actual: ").append(valueOrDefault(failureDetails == null ? null : failureDetails.actual, "unknown")).append("\n");
-            //sb.append("- Suspect file: ").append(valueOrDefault(failureDetails == null ? null : failureDetails.suspectFile, "unknown")).append("\n");
-            //sb.append("- Recent change: ").append(valueOrDefault(failureDetails == null ? null : failureDetails.recentChange, "unknown")).append("\n");
-            sb.append("- Stack (top): ").append(stackTop(error, failureDetails)).append("\n");
+        sb.append("Error: ").append(error.getClass().getSimpleName())
+                .append(" - ").append(error.getMessage()).append("\n");
+        sb.append("Failure Summary:\n");
+sb.append("- Assertion: ").append(valueOrDefault(failureDetails == null ? null : failureDetails.assertion, "unknown")).append(" ==> expected: <").append(failureDetails == null ? null : failureDetails.expected).append("> but was: <").append(failureDetails == null ? null : failureDetails.actual).append(">\n");
+        sb.append("- Assertion: ").append(valueOrDefault(failureDetails == null ? null : failureDetails.assertion, "unknown")).append("\n");
+        sb.append("- Expected: ").append(valueOrDefault(failureDetails == null ? null : failureDetails.expected, "unknown")).append("\n");
+        sb.append("- Actual: ").append(valueOrDefault(failureDetails == null ? null : failureDetails.actual, "unknown")).append("\n");
+        //sb.append("- Suspect file: ").append(valueOrDefault(failureDetails == null ? null : failureDetails.suspectFile, "unknown")).append("\n");
+        //sb.append("- Recent change: ").append(valueOrDefault(failureDetails == null ? null : failureDetails.recentChange, "unknown")).append("\n");
+        sb.append("- Stack (top): ").append(stackTop(error, failureDetails)).append("\n");
+        
+        // AI Fix Instructions - formatted for machine parsing
+        if (failureDetails != null && failureDetails.assertion != null) {
+            String assertion = failureDetails.assertion.toLowerCase();
+            String actual = valueOrDefault(failureDetails.actual, "");
+            String expected = valueOrDefault(failureDetails.expected, "");
             
-            // AI Fix Instructions - formatted for machine parsing
-            if (failureDetails != null && failureDetails.assertion != null) {
-                String assertion = failureDetails.assertion.toLowerCase();
-                String actual = valueOrDefault(failureDetails.actual, "");
-                String expected = valueOrDefault(failureDetails.expected, "");
-                
-                // Generate contextual fix action based on failure type
-                if (assertion.contains("status code") && actual.matches("\\d+")) {
-                    int statusCode = Integer.parseInt(actual.replaceAll("\"", ""));
-                    if (statusCode >= 500) {
-                        sb.append("- Fix action: API returns 500 error. Check server logs and fix the internal server error in ")
-                          .append(". Review exception handling and null checks.\n");
-                    } else if (statusCode >= 400) {
-                        sb.append("- Fix action: API returns ").append(statusCode)
-                          .append(" error. Fix request validation or input handling in ")
-                          .append(valueOrDefault(failureDetails.suspectFile, "unknown")).append(".\n");
-                    }
-                } else if (!expected.equals("unknown") && !actual.equals("unknown") 
-                          && expected.contains("\"") && actual.contains("\"")) {
-                    // String literal mismatch - simple replacement
-                    sb.append("- Fix action: Replace ").append(actual)
-                      .append(" with ").append(expected)
-                      .append(" in ").append(valueOrDefault(failureDetails.suspectFile, "unknown")).append(".\n");
-                } else {
-                    // Generic fix instruction
-                    sb.append("- Fix action: In ").append(valueOrDefault(failureDetails.suspectFile, "unknown"))
-                      .append(", ensure the code returns ").append(expected)
-                      .append(" instead of ").append(actual).append(".\n");
+            // Generate contextual fix action based on failure type
+            if (assertion.contains("status code") && actual.matches("\\d+")) {
+                int statusCode = Integer.parseInt(actual.replaceAll("\"", ""));
+                if (statusCode >= 500) {
+                    sb.append("- Fix action: API returns 500 error. Check server logs and fix the internal server error in ")
+                      .append(". Review exception handling and null checks.\n");
+                } else if (statusCode >= 400) {
+                    sb.append("- Fix action: API returns ").append(statusCode)
+                      .append(" error. Fix request validation or input handling in ")
+                      .append(valueOrDefault(failureDetails.suspectFile, "unknown")).append(".\n");
                 }
+            } else if (!expected.equals("unknown") && !actual.equals("unknown") 
+                      && expected.contains("\"") && actual.contains("\"")) {
+                // String literal mismatch - simple replacement
+                sb.append("- Fix action: Replace ").append(actual)
+                  .append(" with ").append(expected)
+                  .append(" in ").append(valueOrDefault(failureDetails.suspectFile, "unknown")).append(".\n");
+            } else {
+                // Generic fix instruction
+                sb.append("- Fix action: In ").append(valueOrDefault(failureDetails.suspectFile, "unknown"))
+                  .append(", ensure the code returns ").append(expected)
+                  .append(" instead of ").append(actual).append(".\n");
             }
-            
-            sb.append("Repo: ").append(PIPELINE_REPO).append("\n");
-            sb.append("Automation Repo: ").append(AUTOMATION_SUITE_REPO).append("\n\n");
-
-            Files.writeString(REPORT_PATH, sb.toString(), StandardCharsets.UTF_8,
-                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to write curl failure report", e);
         }
+        
+        sb.append("Repo: ").append(PIPELINE_REPO).append("\n");
+        sb.append("Automation Repo: ").append(AUTOMATION_SUITE_REPO).append("\n\n");
+
+        return sb.toString();
     }
 
-    private static String toCurl(HttpRequest request, String requestBody) {
+    static String toCurl(HttpRequest request, String requestBody) {
         StringBuilder curl = new StringBuilder("curl -X ")
                 .append(request.method())
                 .append(" '").append(request.uri()).append("'");
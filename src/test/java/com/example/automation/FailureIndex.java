@@ -0,0 +1,198 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Groups report failures by fingerprint so each distinct failure is written to curl-report.txt
+ * once. The fingerprint hashes the assertion (or error type and message when there is none),
+ * response status, suspect file and the response body with volatile values (UUIDs, timestamps,
+ * numbers) normalised away. Repeats only bump the occurrence count and time range, which are
+ * appended as a summary section at the end of the run together with the
+ * {@code curl-report.idx} side index of byte offsets.
+ */
+final class FailureIndex {
+
+    static final Path INDEX_PATH = Shards.local(Path.of("build", "reports", "curl-report.idx"));
+    static final String INDEX_HEADER = "# curl-report.idx v1: fingerprint\toffset\tlength\tcount\tfirstSeen\tlastSeen\tstatus\tassertion\n";
+
+    static final String SUMMARY_HEADING = "=== Failure Fingerprints ===";
+    private static final Pattern VOLATILE = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}"
+                    + "|\\d{4}-\\d{2}-\\d{2}T[0-9:.]+(?:Z|[+-]\\d{2}:?\\d{2})?"
+                    + "|\\d+");
+    private static final int MAX_TEST_NAMES = 20;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneId.systemDefault());
+
+    private final ConcurrentMap<String, Failure> failures = new ConcurrentHashMap<>();
+
+    static String fingerprint(String assertion, Integer status, String suspectFile, String body) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        for (String part : new String[]{assertion, String.valueOf(status), suspectFile, normalize(body)}) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : VOLATILE.matcher(text).replaceAll("#");
+    }
+
+    /**
+     * Counts one occurrence; {@link Occurrence#isFirst} is true only for the call that should
+     * write the full entry.
+     */
+    Occurrence record(String fingerprint, String testName, String assertion, Integer status, long epochMillis) {
+        boolean[] created = new boolean[1];
+        Failure failure = failures.computeIfAbsent(fingerprint, key -> {
+            created[0] = true;
+            return new Failure(key, assertion, status);
+        });
+        failure.count.increment();
+        failure.firstSeen.accumulate(epochMillis);
+        failure.lastSeen.accumulate(epochMillis);
+        failure.addTest(testName);
+        return new Occurrence(failure, created[0]);
+    }
+
+    /**
+     * Drops a first occurrence whose entry could not be written, so the next identical failure
+     * becomes first and writes it.
+     */
+    void forget(Occurrence occurrence) {
+        if (occurrence.isFirst) {
+            failures.remove(occurrence.failure.fingerprint, occurrence.failure);
+        }
+    }
+
+    void clear() {
+        failures.clear();
+    }
+
+    boolean isEmpty() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Renders the section appended to curl-report.txt, most frequent failures first.
+     */
+    String renderSummary() {
+        List<Failure> sorted = sorted();
+        if (sorted.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(SUMMARY_HEADING).append('\n');
+        for (Failure failure : sorted) {
+            sb.append(failure.fingerprint)
+                    .append(" count=").append(failure.count.sum())
+                    .append(" first=").append(TIME_FORMAT.format(Instant.ofEpochMilli(failure.firstSeen.get())))
+                    .append(" last=").append(TIME_FORMAT.format(Instant.ofEpochMilli(failure.lastSeen.get())))
+                    .append(" status=").append(failure.status == null ? "none" : failure.status)
+                    .append(" offset=").append(failure.offset)
+                    .append("\n");
+            sb.append("  assertion: ").append(failure.assertion).append("\n");
+            sb.append("  tests: ").append(failure.testNames()).append("\n");
+        }
+        return sb.append("\n").toString();
+    }
+
+    /**
+     * Writes one tab-separated line per fingerprint: fingerprint, offset and length of the full
+     * entry in curl-report.txt, count, first and last seen (epoch millis), status, assertion.
+     * {@code summaryOffset} locates the fingerprint section itself (-1 when not written).
+     */
+    void writeIndex(Path path, long summaryOffset) {
+        try {
+            Files.createDirectories(path.getParent());
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                writer.write(INDEX_HEADER);
+                writer.write("# summary\t" + summaryOffset + "\n");
+                for (Failure failure : sorted()) {
+                    writer.write(failure.fingerprint + "\t" + failure.offset + "\t" + failure.length
+                            + "\t" + failure.count.sum() + "\t" + failure.firstSeen.get() + "\t" + failure.lastSeen.get()
+                            + "\t" + (failure.status == null ? "none" : failure.status)
+                            + "\t" + failure.assertion.replace('\t', ' ').replace('\n', ' ') + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write failure index", e);
+        }
+    }
+
+    private List<Failure> sorted() {
+        List<Failure> sorted = new ArrayList<>(failures.values());
+        sorted.sort(Comparator.comparingLong((Failure f) -> f.count.sum()).reversed()
+                .thenComparingLong(f -> f.firstSeen.get()));
+        return sorted;
+    }
+
+    static final class Occurrence {
+        final Failure failure;
+        final boolean isFirst;
+
+        Occurrence(Failure failure, boolean isFirst) {
+            this.failure = failure;
+            this.isFirst = isFirst;
+        }
+    }
+
+    static final class Failure {
+        final String fingerprint;
+        final String assertion;
+        final Integer status;
+        final LongAdder count = new LongAdder();
+        final LongAccumulator firstSeen = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        final LongAccumulator lastSeen = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        private final List<String> tests = new ArrayList<>(); // guarded by this
+        private volatile long offset = -1;
+        private volatile long length;
+
+        Failure(String fingerprint, String assertion, Integer status) {
+            this.fingerprint = fingerprint;
+            this.assertion = assertion;
+            this.status = status;
+        }
+
+        /**
+         * Records where the full entry landed in curl-report.txt.
+         */
+        void located(long offset, long length) {
+            this.length = length;
+            this.offset = offset;
+        }
+
+        private synchronized void addTest(String testName) {
+            if (tests.size() < MAX_TEST_NAMES && !tests.contains(testName)) {
+                tests.add(testName);
+            }
+        }
+
+        private synchronized String testNames() {
+            long more = count.sum() - tests.size();
+            return String.join(", ", tests) + (more > 0 ? " (+" + more + " more occurrences)" : "");
+        }
+    }
+}
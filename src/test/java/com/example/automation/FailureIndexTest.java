@@ -0,0 +1,99 @@
+package com.example.automation;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FailureIndexTest {
+
+    private static final String SUSPECT = "src/main/java/com/example/apptestpipeline/order/OrderController.java";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void fingerprintIgnoresVolatileBodyValues() {
+        String first = FailureIndex.fingerprint("payment.status == \"CLEARED\"", 200, SUSPECT,
+                "{\"orderId\":\"3f2b9c1e-8a4d-4f7e-9b0c-1d2e3f4a5b6c\",\"updatedAt\":\"2026-10-17T12:00:01.123Z\",\"payment\":{\"status\":\"PENDING\"}}");
+        String repeat = FailureIndex.fingerprint("payment.status == \"CLEARED\"", 200, SUSPECT,
+                "{\"orderId\":\"0a1b2c3d-4e5f-4a6b-8c7d-9e0f1a2b3c4d\",\"updatedAt\":\"2026-10-17T12:05:44Z\",\"payment\":{\"status\":\"PENDING\"}}");
+        String otherValue = FailureIndex.fingerprint("payment.status == \"CLEARED\"", 200, SUSPECT,
+                "{\"payment\":{\"status\":\"DECLINED\"}}");
+        String otherStatus = FailureIndex.fingerprint("payment.status == \"CLEARED\"", 500, SUSPECT,
+                "{\"orderId\":\"3f2b9c1e-8a4d-4f7e-9b0c-1d2e3f4a5b6c\",\"updatedAt\":\"2026-10-17T12:00:01.123Z\",\"payment\":{\"status\":\"PENDING\"}}");
+
+        assertEquals(first, repeat);
+        assertNotEquals(first, otherValue);
+        assertNotEquals(first, otherStatus);
+        assertEquals(16, first.length());
+    }
+
+    @Test
+    void countsRepeatsAndIndexesFirstEntry() throws Exception {
+        Path report = tempDir.resolve("curl-report.txt");
+        Path index = tempDir.resolve("curl-report.idx");
+        FailureIndex failures = new FailureIndex();
+        String fingerprint = FailureIndex.fingerprint("status code", 500, SUSPECT, "boom");
+        String other = FailureIndex.fingerprint("stage == PACKING", 200, SUSPECT, "{}");
+
+        try (ReportSink sink = ReportSink.open(report, true)) {
+            sink.append("preamble\n");
+            for (int i = 0; i < 5; i++) {
+                FailureIndex.Occurrence occurrence = failures.record(fingerprint, "test-" + i, "status code", 500, 1_000 + i);
+                assertEquals(i == 0, occurrence.isFirst);
+                if (occurrence.isFirst) {
+                    String entry = "=== Test: test-0 ===\nStatus: 500\n\n";
+                    occurrence.failure.located(sink.append(entry), entry.length());
+                }
+            }
+            FailureIndex.Occurrence single = failures.record(other, "stage-test", "stage == PACKING", 200, 2_000);
+            String entry = "=== Test: stage-test ===\n\n";
+            single.failure.located(sink.append(entry), entry.length());
+            String summary = failures.renderSummary();
+            failures.writeIndex(index, sink.append(summary));
+        }
+
+        String content = Files.readString(report, StandardCharsets.UTF_8);
+        List<String> lines = Files.readAllLines(index, StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).startsWith("# curl-report.idx v1"));
+        assertTrue(content.startsWith("=== Failure Fingerprints ===",
+                Integer.parseInt(lines.get(1).split("\t")[1])));
+
+        String[] top = lines.get(2).split("\t");
+        assertEquals(fingerprint, top[0]);
+        int offset = Integer.parseInt(top[1]);
+        int length = Integer.parseInt(top[2]);
+        assertEquals("=== Test: test-0 ===\nStatus: 500\n\n", content.substring(offset, offset + length));
+        assertEquals("5", top[3]);
+        assertEquals("1000", top[4]);
+        assertEquals("1004", top[5]);
+        assertEquals("500", top[6]);
+        assertEquals(other, lines.get(3).split("\t")[0]);
+
+        assertTrue(content.contains(fingerprint + " count=5 "));
+        assertTrue(content.contains("tests: test-0, test-1, test-2, test-3, test-4\n"));
+        assertFalse(content.contains("=== Test: test-1"));
+    }
+
+    @Test
+    void forgottenFirstOccurrenceLetsTheNextOneWrite() {
+        FailureIndex failures = new FailureIndex();
+        String fingerprint = FailureIndex.fingerprint("status code", 500, SUSPECT, "boom");
+
+        FailureIndex.Occurrence lost = failures.record(fingerprint, "test-0", "status code", 500, 1_000);
+        failures.forget(lost);
+        FailureIndex.Occurrence retried = failures.record(fingerprint, "test-1", "status code", 500, 1_001);
+
+        assertTrue(retried.isFirst);
+        assertNotEquals(lost.failure, retried.failure);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Reads gzip-compressed bytes of {@code source} on demand, so a large file can be compressed
+ * straight into a request body without a temp file, pipe thread or in-memory copy.
+ */
+final class GzipCompressingInputStream extends InputStream {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream source;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final CRC32 crc = new CRC32();
+    private final byte[] input = new byte[BUFFER_SIZE];
+    private final byte[] output = new byte[BUFFER_SIZE];
+    private int outputPos;
+    private int outputLimit;
+    private boolean headerWritten;
+    private boolean trailerWritten;
+    private boolean sourceDone;
+
+    GzipCompressingInputStream(InputStream source) {
+        this.source = source;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return n == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (outputPos == outputLimit) {
+            if (!refill()) {
+                return -1;
+            }
+        }
+        int n = Math.min(length, outputLimit - outputPos);
+        System.arraycopy(output, outputPos, buffer, offset, n);
+        outputPos += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        source.close();
+    }
+
+    private boolean refill() throws IOException {
+        outputPos = 0;
+        outputLimit = 0;
+        if (!headerWritten) {
+            System.arraycopy(HEADER, 0, output, 0, HEADER.length);
+            outputLimit = HEADER.length;
+            headerWritten = true;
+            return true;
+        }
+        if (!deflater.finished()) {
+            if (deflater.needsInput() && !sourceDone) {
+                int n = source.read(input, 0, input.length);
+                if (n == -1) {
+                    sourceDone = true;
+                    deflater.finish();
+                } else if (n > 0) {
+                    crc.update(input, 0, n);
+                    deflater.setInput(input, 0, n);
+                }
+            }
+            outputLimit = deflater.deflate(output, 0, output.length);
+            return true;
+        }
+        if (!trailerWritten) {
+            writeIntLe((int) crc.getValue(), 0);
+            writeIntLe((int) deflater.getBytesRead(), 4);
+            outputLimit = 8;
+            trailerWritten = true;
+            return true;
+        }
+        return false;
+    }
+
+    private void writeIntLe(int value, int at) {
+        output[at] = (byte) value;
+        output[at + 1] = (byte) (value >>> 8);
+        output[at + 2] = (byte) (value >>> 16);
+        output[at + 3] = (byte) (value >>> 24);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.automation;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Builds the suite's {@link HttpClient} from a named {@link Profile}. The default profile is the
+ * plain client the tests always used; the others switch to HTTP/2, a per-task executor and an
+ * explicit connection pool so they can be compared under load.
+ *
+ * <p>java.net.http negotiates HTTP/2 over cleartext with an h2c upgrade on the first request
+ * (prior knowledge is not supported) and falls back to HTTP/1.1 when the server ignores it.
+ * Pool size and keep-alive are JVM-wide {@code jdk.httpclient.*} properties read once, when the
+ * first client is created, so the first profile built in a JVM decides them.
+ */
+final class HttpClients {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static String effectivePoolSettings; // guarded by HttpClients.class
+
+    private HttpClients() {
+    }
+
+    static HttpClient create(Profile profile) {
+        applyPoolSettings(profile);
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT);
+        if (profile.version != null) {
+            builder.version(profile.version);
+        }
+        if (profile.perTaskExecutor) {
+            builder.executor(TaskExecutors.perTask("http-client-" + profile.name));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Shuts down the per-task executor {@link #create} gave {@code client}, if any. Java 17's
+     * {@link HttpClient} cannot be closed, so this is what ends a short-lived client's threads.
+     */
+    static void release(HttpClient client) {
+        client.executor().ifPresent(executor -> {
+            if (executor instanceof ExecutorService) {
+                ((ExecutorService) executor).shutdownNow();
+            }
+        });
+    }
+
+    /**
+     * Pool settings in force for every client in this JVM, as fixed by the first {@link #create}.
+     */
+    static synchronized String effectivePoolSettings() {
+        return effectivePoolSettings == null ? "not yet initialised" : effectivePoolSettings;
+    }
+
+    private static synchronized void applyPoolSettings(Profile profile) {
+        if (effectivePoolSettings != null) {
+            return;
+        }
+        if (profile.poolSize > 0 && System.getProperty("jdk.httpclient.connectionPoolSize") == null) {
+            System.setProperty("jdk.httpclient.connectionPoolSize", String.valueOf(profile.poolSize));
+        }
+        if (profile.keepAlive != null && System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout", String.valueOf(profile.keepAlive.toSeconds()));
+        }
+        effectivePoolSettings = "connectionPoolSize="
+                + System.getProperty("jdk.httpclient.connectionPoolSize", "unbounded")
+                + ", keepalive.timeout=" + System.getProperty("jdk.httpclient.keepalive.timeout", "JDK default");
+    }
+
+    static final class Profile {
+        final String name;
+        final HttpClient.Version version;
+        final boolean perTaskExecutor;
+        final int poolSize;
+        final Duration keepAlive;
+
+        Profile(String name, HttpClient.Version version, boolean perTaskExecutor, int poolSize, Duration keepAlive) {
+            this.name = name;
+            this.version = version;
+            this.perTaskExecutor = perTaskExecutor;
+            this.poolSize = poolSize;
+            this.keepAlive = keepAlive;
+        }
+
+        /** The client the suite has always used: JDK defaults plus a 5s connect timeout. */
+        static Profile standard() {
+            return new Profile("default", null, false, 0, null);
+        }
+
+        /** HTTP/1.1 with a per-task executor and a large, long-lived pool. */
+        static Profile http1Pooled() {
+            return new Profile("http1-pooled", HttpClient.Version.HTTP_1_1, true, 512, Duration.ofMinutes(5));
+        }
+
+        /** HTTP/2 (h2c upgrade on cleartext) multiplexing requests over few connections. */
+        static Profile http2() {
+            return new Profile("http2", HttpClient.Version.HTTP_2, true, 512, Duration.ofMinutes(5));
+        }
+
+        static List<Profile> all() {
+            return List.of(standard(), http1Pooled(), http2());
+        }
+
+        static Profile named(String name) {
+            for (Profile profile : all()) {
+                if (profile.name.equals(name)) {
+                    return profile;
+                }
+            }
+            throw new IllegalArgumentException("Unknown client profile '" + name + "'; expected one of "
+                    + all().stream().map(p -> p.name).toList());
+        }
+
+        /**
+         * Reads {@code client.profile} (default, http1-pooled, http2) and optional overrides
+         * {@code client.protocol} (http1, http2), {@code client.executor} (default, virtual),
+         * {@code client.poolSize} and {@code client.keepAliveSeconds}.
+         */
+        static Profile fromSystemProperties() {
+            Profile base = named(System.getProperty("client.profile", "default"));
+            String protocol = System.getProperty("client.protocol");
+            HttpClient.Version version = protocol == null ? base.version
+                    : protocol.toLowerCase(Locale.ROOT).startsWith("http2") || protocol.equalsIgnoreCase("h2c")
+                    ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+            String executor = System.getProperty("client.executor");
+            boolean perTask = executor == null ? base.perTaskExecutor : executor.equalsIgnoreCase("virtual");
+            int poolSize = Integer.getInteger("client.poolSize", base.poolSize);
+            Long keepAliveSeconds = Long.getLong("client.keepAliveSeconds");
+            Duration keepAlive = keepAliveSeconds == null ? base.keepAlive : Duration.ofSeconds(keepAliveSeconds);
+            return new Profile(base.name, version, perTask, poolSize, keepAlive);
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + (version == null ? "JDK default version" : version)
+                    + ", " + (perTaskExecutor ? "per-task executor" : "default executor")
+                    + ", pool=" + (poolSize > 0 ? poolSize : "unbounded")
+                    + ", keepAlive=" + (keepAlive == null ? "default" : keepAlive.toSeconds() + "s") + ")";
+        }
+    }
+}
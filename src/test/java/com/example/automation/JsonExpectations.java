@@ -0,0 +1,386 @@
+package com.example.automation;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+
+/**
+ * Declarative field checks such as {@code payment.status == CLEARED}, evaluated in a single
+ * pass with Jackson's streaming {@link JsonParser}. Parsing stops at the first mismatch or as
+ * soon as every expected field has been seen, and subtrees no expectation points into are
+ * skipped without being materialised. A {@link Feed} runs the same pass over a body as it
+ * arrives, for callers that never hold the whole body.
+ */
+final class JsonExpectations {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final Map<String, Expectation> byPath = new LinkedHashMap<>();
+    private final Set<String> containers = new HashSet<>();
+
+    JsonExpectations(List<Expectation> expectations) {
+        for (Expectation expectation : expectations) {
+            byPath.put(expectation.path, expectation);
+            String path = expectation.path;
+            for (int dot = path.indexOf('.'); dot > 0; dot = path.indexOf('.', dot + 1)) {
+                containers.add(path.substring(0, dot));
+            }
+        }
+    }
+
+    Mismatch verify(String body) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            return verify(parser);
+        }
+    }
+
+    Mismatch verify(InputStream body) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            return verify(parser);
+        }
+    }
+
+    /**
+     * Starts a pass over a body that will be fed to it in chunks.
+     */
+    Feed feed() {
+        try {
+            return new Feed(FACTORY.createNonBlockingByteBufferParser());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create non-blocking JSON parser", e);
+        }
+    }
+
+    /**
+     * Reads a streamed response: 2xx bodies are checked against the expectations, anything else
+     * is only captured. The body is kept through a {@link BodyCapture}, so a failure can still be
+     * reported with bounded memory, and the stream is drained so the connection can be reused.
+     * The body text is rendered up front only for a mismatch, a parse error or a non-2xx status;
+     * a passing response renders it on demand, without its spill file.
+     */
+    Verdict check(HttpResponse<InputStream> response) throws IOException {
+        return check(response, BodyCapture.DEFAULT_LIMIT_BYTES, BodyCapture.SPILL_DIR);
+    }
+
+    Verdict check(HttpResponse<InputStream> response, int limit, Path spillDir) throws IOException {
+        try (CapturingInputStream body = new CapturingInputStream(response.body(), new BodyCapture(limit, spillDir))) {
+            Mismatch mismatch = null;
+            IOException parseError = null;
+            boolean evaluated = response.statusCode() >= 200 && response.statusCode() < 300;
+            if (evaluated) {
+                try {
+                    mismatch = verify(body.unclosable());
+                } catch (IOException e) {
+                    parseError = e;
+                }
+            }
+            body.drain();
+            CapturedResponse captured = evaluated && mismatch == null && parseError == null
+                    ? new CapturedResponse(response, body.deferred())
+                    : new CapturedResponse(response, body.captured());
+            return new Verdict(captured, evaluated, mismatch, parseError);
+        }
+    }
+
+    private Mismatch verify(JsonParser parser) throws IOException {
+        Walk walk = new Walk();
+        JsonToken token;
+        while (!walk.done && (token = parser.nextToken()) != null) {
+            walk.accept(parser, token);
+        }
+        return walk.end();
+    }
+
+    private Mismatch firstMissing(Set<String> pending) {
+        for (Expectation expectation : byPath.values()) {
+            if (pending.contains(expectation.path)) {
+                return new Mismatch(expectation, "<missing>", null);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One {@code path == value} check plus the report metadata used when it fails.
+     * Quoted values ({@code stage == "PACKING"}) and bare values ({@code stage == PACKING})
+     * are equivalent; numbers and booleans compare by their JSON text.
+     */
+    static final class Expectation {
+        final String path;
+        final String expected;
+        final String suspectFile;
+        final String recentChange;
+        final String stackTop;
+
+        Expectation(String expression, String suspectFile, String recentChange, String stackTop) {
+            int operator = expression.indexOf("==");
+            if (operator <= 0) {
+                throw new IllegalArgumentException("Expected '<path> == <value>' but got: " + expression);
+            }
+            this.path = expression.substring(0, operator).trim();
+            this.expected = unquote(expression.substring(operator + 2).trim());
+            this.suspectFile = suspectFile;
+            this.recentChange = recentChange;
+            this.stackTop = stackTop;
+        }
+
+        private Mismatch match(JsonParser parser, JsonToken value) throws IOException {
+            if (value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                String actual = parser.getText();
+                return expected.equals(actual) ? null : new Mismatch(this, actual, value);
+            }
+            String actual = value == JsonToken.VALUE_NULL ? "null"
+                    : value == JsonToken.START_OBJECT ? "<object>" : "<array>";
+            return new Mismatch(this, actual, value);
+        }
+
+        private boolean expectsText() {
+            return !"true".equals(expected) && !"false".equals(expected) && !expected.matches("-?\\d+(\\.\\d+)?");
+        }
+
+        private static String unquote(String value) {
+            return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                    ? value.substring(1, value.length() - 1)
+                    : value;
+        }
+    }
+
+    static final class Mismatch {
+        final Expectation expectation;
+        final String actual;
+        private final JsonToken actualToken;
+
+        Mismatch(Expectation expectation, String actual, JsonToken actualToken) {
+            this.expectation = expectation;
+            this.actual = actual;
+            this.actualToken = actualToken;
+        }
+
+        String message() {
+            return expectation.path + " should be " + expectation.expected;
+        }
+
+        /**
+         * Throws the same assertion error the hand-written checks used to raise.
+         */
+        void fail() {
+            assertTrue(false, message());
+        }
+
+        CurlReporter.FailureDetails toFailureDetails() {
+            String expected = expectation.expectsText() ? "\"" + expectation.expected + "\"" : expectation.expected;
+            String shownActual = actualToken == JsonToken.VALUE_STRING ? "\"" + actual + "\"" : actual;
+            return new CurlReporter.FailureDetails(
+                    expectation.path + " == " + expected,
+                    expected,
+                    shownActual,
+                    expectation.suspectFile,
+                    expectation.recentChange,
+                    expectation.stackTop);
+        }
+    }
+
+    /**
+     * The expectation pass over one document, advanced a token at a time so a blocking parser and
+     * a non-blocking one can drive it alike. Unrelated subtrees are skipped by depth counting,
+     * since {@link JsonParser#skipChildren()} cannot wait for more input.
+     */
+    private final class Walk {
+        private final Set<String> pending = new HashSet<>(byPath.keySet());
+        private final List<String> prefixes = new ArrayList<>();
+        private boolean started;
+        private boolean done = pending.isEmpty();
+        private Mismatch mismatch;
+        private String field;
+        private int skipDepth;
+
+        void accept(JsonParser parser, JsonToken token) throws IOException {
+            if (!started) {
+                started = true;
+                if (token == JsonToken.START_OBJECT) {
+                    prefixes.add("");
+                } else {
+                    finish(firstMissing(pending));
+                }
+            } else if (skipDepth > 0) {
+                skipDepth += token.isStructStart() ? 1 : token.isStructEnd() ? -1 : 0;
+            } else if (token == JsonToken.END_OBJECT) {
+                prefixes.remove(prefixes.size() - 1);
+                if (prefixes.isEmpty()) {
+                    finish(firstMissing(pending));
+                }
+            } else if (token == JsonToken.FIELD_NAME) {
+                field = prefixes.get(prefixes.size() - 1) + parser.currentName();
+            } else if (byPath.containsKey(field)) {
+                Mismatch found = byPath.get(field).match(parser, token);
+                pending.remove(field);
+                if (found != null || pending.isEmpty()) {
+                    finish(found);
+                }
+            } else if (token == JsonToken.START_OBJECT && containers.contains(field)) {
+                prefixes.add(field + ".");
+            } else if (token.isStructStart()) {
+                skipDepth = 1;
+            }
+        }
+
+        Mismatch end() {
+            if (!done) {
+                finish(firstMissing(pending));
+            }
+            return mismatch;
+        }
+
+        private void finish(Mismatch found) {
+            done = true;
+            mismatch = found;
+        }
+    }
+
+    /**
+     * Verifies a body chunk by chunk through Jackson's non-blocking parser, so only the parser's
+     * own buffer is held. Chunks arriving after the outcome is known are ignored.
+     */
+    final class Feed {
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final Walk walk = new Walk();
+
+        private Feed(JsonParser parser) {
+            this.parser = parser;
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        /**
+         * Parses {@code chunk} without moving its position.
+         */
+        void write(ByteBuffer chunk) throws IOException {
+            if (!walk.done) {
+                feeder.feedInput(chunk.duplicate());
+                advance();
+            }
+        }
+
+        /**
+         * Ends the input; throws if the body so far is not valid JSON.
+         */
+        Mismatch end() throws IOException {
+            try (parser) {
+                if (!walk.done) {
+                    feeder.endOfInput();
+                    advance();
+                }
+                return walk.end();
+            }
+        }
+
+        private void advance() throws IOException {
+            JsonToken token;
+            while (!walk.done && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                walk.accept(parser, token);
+            }
+        }
+    }
+
+    static final class Verdict {
+        final HttpResponse<String> response;
+        final boolean evaluated;
+        final Mismatch mismatch;
+        final IOException parseError;
+
+        Verdict(HttpResponse<String> response, boolean evaluated, Mismatch mismatch, IOException parseError) {
+            this.response = response;
+            this.evaluated = evaluated;
+            this.mismatch = mismatch;
+            this.parseError = parseError;
+        }
+    }
+
+    /**
+     * Tees everything read through it into a {@link BodyCapture}.
+     */
+    private static final class CapturingInputStream extends FilterInputStream {
+        private final BodyCapture capture;
+        private boolean finished;
+
+        CapturingInputStream(InputStream in, BodyCapture capture) {
+            super(in);
+            this.capture = capture;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                capture.write(new byte[]{(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                capture.write(buffer, offset, n);
+            }
+            return n;
+        }
+
+        void drain() throws IOException {
+            byte[] buffer = new byte[8192];
+            while (read(buffer, 0, buffer.length) != -1) {
+                // Keep capturing so the report sees the rest of the body.
+            }
+        }
+
+        String captured() throws IOException {
+            finished = true;
+            return capture.finish();
+        }
+
+        /**
+         * Hands the capture over for rendering later; the spill file is released now, like on
+         * {@link #close()}, so only the in-memory head and the digest remain.
+         */
+        CapturedResponse.BodySource deferred() {
+            finished = true;
+            capture.abort();
+            return capture::finish;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                capture.abort();
+            }
+            super.close();
+        }
+
+        /**
+         * The parser closes its source when done; keep the underlying stream open for draining.
+         */
+        InputStream unclosable() {
+            return new FilterInputStream(this) {
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.automation;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class JsonExpectationsTest {
+
+    private static final JsonExpectations EXPECTATIONS = new JsonExpectations(List.of(
+            new JsonExpectations.Expectation("overallStatus == \"ACTIVE\"", "OrderController.java", null, "assertOverallStatus"),
+            new JsonExpectations.Expectation("progressPercent == 50", "OrderController.java", null, "assertProgressPercent"),
+            new JsonExpectations.Expectation("payment.status == CLEARED", "OrderController.java:133", "commit c926a93", "assertPaymentCleared")
+    ));
+
+    @Test
+    void matchingDocumentPassesAndSkipsUnrelatedSubtrees() throws Exception {
+        String body = "{\"items\":[{\"sku\":\"sku-456\",\"payment\":{\"status\":\"IGNORED\"}}],"
+                + "\"meta\":{\"payment\":{\"status\":\"IGNORED\"}},"
+                + "\"overallStatus\":\"ACTIVE\",\"progressPercent\":50,"
+                + "\"payment\":{\"method\":\"card\",\"status\":\"CLEARED\"}}";
+
+        assertNull(EXPECTATIONS.verify(body));
+        assertNull(EXPECTATIONS.verify(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void feedVerifiesABodyChunkByChunk() throws Exception {
+        String body = "{\"items\":[{\"payment\":{\"status\":\"IGNORED\"}}],\"overallStatus\":\"ACTIVE\","
+                + "\"progressPercent\":50,\"payment\":{\"method\":\"card\",\"status\":\"CLEARED\"}}";
+
+        assertNull(feedBytewise(body));
+        assertEquals("PENDING", feedBytewise("{\"payment\":{\"status\":\"PENDING\"},\"overallStatus\": <<<not json").actual);
+        assertEquals("<missing>", feedBytewise("{\"overallStatus\":\"ACTIVE\",\"progressPercent\":50}").actual);
+        assertThrows(IOException.class, () -> feedBytewise("{\"overallStatus\":\"ACT"));
+    }
+
+    @Test
+    void stopsAtFirstMismatchAndDescribesItLikeTheHandWrittenChecks() throws Exception {
+        // Everything after the mismatch is malformed; reaching it would throw.
+        JsonExpectations.Mismatch mismatch = EXPECTATIONS.verify(
+                "{\"payment\":{\"status\":\"PENDING\"},\"overallStatus\": <<<not json");
+
+        CurlReporter.FailureDetails details = mismatch.toFailureDetails();
+        assertEquals("payment.status == \"CLEARED\"", details.assertion);
+        assertEquals("\"CLEARED\"", details.expected);
+        assertEquals("\"PENDING\"", details.actual);
+        assertEquals("OrderController.java:133", details.suspectFile);
+        assertEquals("commit c926a93", details.recentChange);
+        assertEquals("assertPaymentCleared", details.stackTop);
+
+        AssertionError error = assertThrows(AssertionError.class, mismatch::fail);
+        assertTrue(error.getMessage().startsWith("payment.status should be CLEARED"));
+    }
+
+    @Test
+    void numericMismatchIsNotQuoted() throws Exception {
+        CurlReporter.FailureDetails details = EXPECTATIONS.verify(
+                "{\"overallStatus\":\"ACTIVE\",\"progressPercent\":75}").toFailureDetails();
+
+        assertEquals("progressPercent == 50", details.assertion);
+        assertEquals("50", details.expected);
+        assertEquals("75", details.actual);
+    }
+
+    @Test
+    void missingAndNonScalarFieldsAreMismatches() throws Exception {
+        assertEquals("<missing>", EXPECTATIONS.verify(
+                "{\"overallStatus\":\"ACTIVE\",\"progressPercent\":50}").actual);
+        assertEquals("<missing>", EXPECTATIONS.verify(
+                "{\"overallStatus\":\"ACTIVE\",\"progressPercent\":50,\"payment\":null}").actual);
+        assertEquals("null", EXPECTATIONS.verify("{\"overallStatus\":null}").actual);
+        assertEquals("<object>", EXPECTATIONS.verify(
+                "{\"overallStatus\":{\"code\":\"ACTIVE\"}}").actual);
+    }
+
+    @Test
+    void checkCapturesBodyForReporting() throws Exception {
+        try (OrderStubServer stub = OrderStubServer.start(OrderStubServer.Script.healthy().withPaymentStatus("PENDING"))) {
+            JsonExpectations.Verdict verdict = EXPECTATIONS.check(OrderApiTest.CLIENT.send(
+                    OrderApiTest.orderStatusRequest(stub.baseUrl(), OrderApiTest.DEFAULT_ORDER_ID),
+                    HttpResponse.BodyHandlers.ofInputStream()));
+
+            assertTrue(verdict.evaluated);
+            assertEquals("\"PENDING\"", verdict.mismatch.toFailureDetails().actual);
+            assertEquals(OrderStubServer.Script.healthy().withPaymentStatus("PENDING").statusBody("abcd-12345"),
+                    verdict.response.body());
+            assertEquals(200, verdict.response.statusCode());
+        }
+    }
+
+    @Test
+    void passingCheckRendersBodyOnDemand() throws Exception {
+        try (OrderStubServer stub = OrderStubServer.start(OrderStubServer.Script.healthy())) {
+            JsonExpectations.Verdict verdict = EXPECTATIONS.check(OrderApiTest.CLIENT.send(
+                    OrderApiTest.orderStatusRequest(stub.baseUrl(), OrderApiTest.DEFAULT_ORDER_ID),
+                    HttpResponse.BodyHandlers.ofInputStream()));
+
+            assertTrue(verdict.evaluated);
+            assertNull(verdict.mismatch);
+            assertEquals(OrderStubServer.Script.healthy().statusBody("abcd-12345"), verdict.response.body());
+        }
+    }
+
+    private static JsonExpectations.Mismatch feedBytewise(String body) throws IOException {
+        JsonExpectations.Feed feed = EXPECTATIONS.feed();
+        for (byte b : body.getBytes(StandardCharsets.UTF_8)) {
+            feed.write(ByteBuffer.wrap(new byte[]{b}));
+        }
+        return feed.end();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.automation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        assertEquals(10_000, histogram.count());
+        assertEquals(10_000_000, histogram.maxNanos());
+        assertWithinPrecision(5_000_000, histogram.percentileNanos(0.50));
+        assertWithinPrecision(9_000_000, histogram.percentileNanos(0.90));
+        assertWithinPrecision(9_900_000, histogram.percentileNanos(0.99));
+        assertEquals(10_000_000, histogram.percentileNanos(1.0));
+    }
+
+    @Test
+    void bucketBoundsCoverEveryValue() {
+        long[] samples = {0, 1, 255, 256, 257, 1_000, 123_456_789, 9_999_999_999L, Long.MAX_VALUE / 4};
+        for (long value : samples) {
+            int index = LatencyHistogram.indexOf(value);
+            long upper = LatencyHistogram.upperBoundOf(index);
+            assertTrue(upper >= value, "upper bound " + upper + " below " + value);
+            assertTrue(index == 0 || LatencyHistogram.upperBoundOf(index - 1) < value,
+                    "value " + value + " belongs in an earlier bucket");
+        }
+    }
+
+    @Test
+    void cumulativeCountsSplitAtBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long millis = 1; millis <= 100; millis++) {
+            histogram.record(millis * 1_000_000);
+        }
+
+        long[] cumulative = histogram.cumulativeCounts(new long[]{500_000, 10_500_000, 50_500_000, 1_000_000_000});
+        assertEquals(0, cumulative[0]);
+        assertEquals(10, cumulative[1]);
+        assertEquals(50, cumulative[2]);
+        assertEquals(100, cumulative[3]);
+        assertEquals(5_050_000_000L, histogram.sumNanos());
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentileNanos(0.99));
+        assertEquals(0, histogram.snapshot().count);
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 128,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Drives a set of endpoints either closed-loop (a fixed number of virtual users, each
+ * sending its next request as soon as the previous one completes) or open-loop (a fixed
+ * arrival rate, independent of how fast the server answers). Open-loop latency is
+ * measured from the scheduled send time so a stalled server cannot hide queueing delay.
+ */
+final class LoadGenerator {
+
+    enum Mode {
+        CLOSED,
+        OPEN
+    }
+
+    private final HttpClient client;
+    private final List<Endpoint> endpoints;
+
+    LoadGenerator(HttpClient client, List<Endpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        this.client = client;
+        this.endpoints = List.copyOf(endpoints);
+    }
+
+    Result run(Profile profile) throws InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            stats.put(endpoint.name, new EndpointStats(endpoint.name));
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + profile.duration.toNanos();
+        if (profile.async) {
+            if (profile.mode == Mode.CLOSED) {
+                runClosedAsync(profile, stats, deadline);
+            } else {
+                runOpenAsync(profile, stats, start, deadline);
+            }
+            return new Result(profile, stats, System.nanoTime() - start);
+        }
+        ExecutorService executor = TaskExecutors.perTask("load");
+        try {
+            if (profile.mode == Mode.CLOSED) {
+                runClosed(profile, executor, stats, deadline);
+            } else {
+                runOpen(profile, executor, stats, start, deadline);
+            }
+        } finally {
+            executor.shutdown();
+            if (!executor.awaitTermination(profile.duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        }
+        return new Result(profile, stats, System.nanoTime() - start);
+    }
+
+    private void runClosed(Profile profile, ExecutorService executor, Map<String, EndpointStats> stats,
+                           long deadline) {
+        for (int user = 0; user < profile.users; user++) {
+            int offset = user;
+            executor.execute(() -> {
+                for (long i = offset; System.nanoTime() < deadline; i++) {
+                    Endpoint endpoint = endpoints.get((int) (i % endpoints.size()));
+                    execute(endpoint, stats.get(endpoint.name), System.nanoTime());
+                }
+            });
+        }
+    }
+
+    private void runOpen(Profile profile, ExecutorService executor, Map<String, EndpointStats> stats,
+                         long start, long deadline) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / profile.ratePerSecond);
+        Semaphore inFlight = new Semaphore(profile.maxInFlight);
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= deadline) {
+                return;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = endpoints.get((int) (i % endpoints.size()));
+            EndpointStats endpointStats = stats.get(endpoint.name);
+            if (!inFlight.tryAcquire()) {
+                endpointStats.dropped.increment();
+                continue;
+            }
+            executor.execute(() -> {
+                try {
+                    execute(endpoint, endpointStats, scheduled);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Closed loop without a thread per user: each user is a chain of {@code sendAsync} futures
+     * where the next request is issued from the completion of the previous one.
+     */
+    private void runClosedAsync(Profile profile, Map<String, EndpointStats> stats, long deadline)
+            throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(profile.users);
+        for (int user = 0; user < profile.users; user++) {
+            chain(user, stats, deadline, done);
+        }
+        if (!done.await(profile.duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Async load users did not finish in time");
+        }
+    }
+
+    /**
+     * Issues requests of one user from {@code first} on. Requests that complete synchronously, such
+     * as a {@code sendAsync} that fails at once, are looped over here rather than chained, so they
+     * cannot grow the stack; only a pending request hands the rest of the chain to its completion.
+     */
+    private void chain(long first, Map<String, EndpointStats> stats, long deadline, CountDownLatch done) {
+        for (long i = first; System.nanoTime() < deadline; i++) {
+            Endpoint endpoint = endpoints.get((int) (i % endpoints.size()));
+            CompletableFuture<Void> request = executeAsync(endpoint, stats.get(endpoint.name), System.nanoTime());
+            if (!request.isDone()) {
+                long next = i + 1;
+                request.whenComplete((ignored, error) -> chain(next, stats, deadline, done));
+                return;
+            }
+        }
+        done.countDown();
+    }
+
+    private void runOpenAsync(Profile profile, Map<String, EndpointStats> stats, long start, long deadline)
+            throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / profile.ratePerSecond);
+        Semaphore inFlight = new Semaphore(profile.maxInFlight);
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= deadline) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = endpoints.get((int) (i % endpoints.size()));
+            EndpointStats endpointStats = stats.get(endpoint.name);
+            if (!inFlight.tryAcquire()) {
+                endpointStats.dropped.increment();
+                continue;
+            }
+            executeAsync(endpoint, endpointStats, scheduled).whenComplete((ignored, error) -> inFlight.release());
+        }
+        if (!inFlight.tryAcquire(profile.maxInFlight, profile.duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Async load requests did not finish in time");
+        }
+    }
+
+    private CompletableFuture<Void> executeAsync(Endpoint endpoint, EndpointStats stats, long startNanos) {
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            response = client.sendAsync(endpoint.request.get(), BoundedBodyHandler.ofVerifiedString(endpoint.expectations));
+        } catch (RuntimeException e) {
+            stats.record(System.nanoTime() - startNanos, false);
+            return CompletableFuture.completedFuture(null);
+        }
+        return response.handle((result, error) -> {
+            boolean ok = false;
+            if (error == null) {
+                try {
+                    endpoint.check.verify(result);
+                    ok = true;
+                } catch (Exception | AssertionError e) {
+                    ok = false;
+                }
+            }
+            stats.record(System.nanoTime() - startNanos, ok);
+            return null;
+        });
+    }
+
+    private void execute(Endpoint endpoint, EndpointStats stats, long startNanos) {
+        boolean ok;
+        try {
+            HttpResponse<String> response = client.send(endpoint.request.get(), BoundedBodyHandler.ofVerifiedString(endpoint.expectations));
+            endpoint.check.verify(response);
+            ok = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ok = false;
+        } catch (Exception | AssertionError e) {
+            ok = false;
+        }
+        stats.record(System.nanoTime() - startNanos, ok);
+    }
+
+    @FunctionalInterface
+    interface Check {
+        void verify(HttpResponse<String> response) throws Exception;
+    }
+
+    /**
+     * One load target. Its {@code expectations}, if any, are verified while a 2xx body streams in;
+     * the {@code check} then sees the body bounded like a reported one.
+     */
+    static final class Endpoint {
+        final String name;
+        final Supplier<HttpRequest> request;
+        final JsonExpectations expectations;
+        final Check check;
+
+        Endpoint(String name, Supplier<HttpRequest> request, Check check) {
+            this(name, request, null, check);
+        }
+
+        Endpoint(String name, Supplier<HttpRequest> request, JsonExpectations expectations, Check check) {
+            this.name = name;
+            this.request = request;
+            this.expectations = expectations;
+            this.check = check;
+        }
+    }
+
+    static final class Profile {
+        final Mode mode;
+        final int users;
+        final double ratePerSecond;
+        final int maxInFlight;
+        final Duration duration;
+        final boolean async;
+
+        Profile(Mode mode, int users, double ratePerSecond, int maxInFlight, Duration duration, boolean async) {
+            if (mode == Mode.CLOSED && users < 1) {
+                throw new IllegalArgumentException("Closed-loop load needs at least one user");
+            }
+            if (mode == Mode.OPEN && ratePerSecond <= 0) {
+                throw new IllegalArgumentException("Open-loop load needs a positive rate");
+            }
+            this.mode = mode;
+            this.users = users;
+            this.ratePerSecond = ratePerSecond;
+            this.maxInFlight = maxInFlight;
+            this.duration = duration;
+            this.async = async;
+        }
+
+        /**
+         * Open-loop cap when {@code load.maxInFlight} is not given. Without virtual threads each
+         * blocking request holds a platform thread of the cached pool, so the cap is also the
+         * thread count and stays low.
+         */
+        static int defaultMaxInFlight() {
+            return TaskExecutors.virtualThreadsAvailable() ? 1_000 : 256;
+        }
+
+        /**
+         * Reads {@code load.mode}, {@code load.users}, {@code load.rate}, {@code load.maxInFlight},
+         * {@code load.duration} (seconds) and {@code load.async}, as forwarded by build.gradle
+         * from -P properties.
+         */
+        static Profile fromSystemProperties() {
+            Mode mode = Mode.valueOf(System.getProperty("load.mode", "closed").toUpperCase(Locale.ROOT));
+            int users = Integer.getInteger("load.users", 10);
+            double rate = Double.parseDouble(System.getProperty("load.rate", "50"));
+            int maxInFlight = Integer.getInteger("load.maxInFlight", defaultMaxInFlight());
+            Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 30L));
+            return new Profile(mode, users, rate, maxInFlight, duration, Boolean.getBoolean("load.async"));
+        }
+
+        @Override
+        public String toString() {
+            return (mode == Mode.CLOSED
+                    ? "closed-loop, users=" + users
+                    : "open-loop, rate=" + ratePerSecond + "/s, maxInFlight=" + maxInFlight)
+                    + ", duration=" + duration.toSeconds() + "s" + (async ? ", sendAsync" : "");
+        }
+    }
+
+    static final class EndpointStats {
+        final String name;
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        EndpointStats(String name) {
+            this.name = name;
+        }
+
+        void record(long latencyNanos, boolean ok) {
+            requests.increment();
+            if (!ok) {
+                errors.increment();
+            }
+            latency.record(latencyNanos);
+        }
+    }
+
+    static final class Result {
+        final Profile profile;
+        final Map<String, EndpointStats> endpoints;
+        final long elapsedNanos;
+
+        Result(Profile profile, Map<String, EndpointStats> endpoints, long elapsedNanos) {
+            this.profile = profile;
+            this.endpoints = endpoints;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        double requestsPerSecond() {
+            long requests = 0;
+            for (EndpointStats stats : endpoints.values()) {
+                requests += stats.requests.sum();
+            }
+            return requests / (elapsedNanos / 1e9);
+        }
+
+        double errorRate() {
+            long requests = 0;
+            long errors = 0;
+            for (EndpointStats stats : endpoints.values()) {
+                requests += stats.requests.sum() + stats.dropped.sum();
+                errors += stats.errors.sum() + stats.dropped.sum();
+            }
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+
+        String render() {
+            double seconds = elapsedNanos / 1e9;
+            StringBuilder sb = new StringBuilder();
+            sb.append("=== Load: ").append(profile).append(" ===\n");
+            sb.append(String.format(Locale.ROOT, "%-32s %10s %8s %8s %7s %10s %9s %9s %9s %9s%n",
+                    "Endpoint", "Requests", "Errors", "Dropped", "Error%", "Req/s",
+                    "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)"));
+            for (EndpointStats stats : endpoints.values()) {
+                long requests = stats.requests.sum();
+                long errors = stats.errors.sum();
+                long dropped = stats.dropped.sum();
+                long attempted = requests + dropped;
+                LatencyHistogram.Snapshot latency = stats.latency.snapshot();
+                sb.append(String.format(Locale.ROOT, "%-32s %10d %8d %8d %7.2f %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                        stats.name, requests, errors, dropped,
+                        attempted == 0 ? 0.0 : 100.0 * (errors + dropped) / attempted,
+                        requests / seconds,
+                        latency.p50Nanos / 1e6, latency.p90Nanos / 1e6,
+                        latency.p99Nanos / 1e6, latency.maxNanos / 1e6));
+            }
+            return sb.toString();
+        }
+
+        void writeTo(Path path) {
+            try {
+                Files.createDirectories(path.getParent());
+                Files.writeString(path, render(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write load report", e);
+            }
+        }
+    }
+}
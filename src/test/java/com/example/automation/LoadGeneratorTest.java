@@ -0,0 +1,27 @@
+package com.example.automation;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class LoadGeneratorTest {
+
+    @Test
+    void synchronousSendFailuresDoNotGrowTheAsyncChain() throws Exception {
+        LoadGenerator generator = new LoadGenerator(OrderApiTest.CLIENT, List.of(
+                new LoadGenerator.Endpoint("broken", () -> {
+                    throw new IllegalStateException("no request");
+                }, response -> {
+                })));
+
+        LoadGenerator.Result result = generator.run(new LoadGenerator.Profile(
+                LoadGenerator.Mode.CLOSED, 1, 0, 0, Duration.ofSeconds(1), true));
+
+        long requests = result.endpoints.get("broken").requests.sum();
+        assertTrue(requests > 20_000, "only " + requests + " requests were issued");
+        assertEquals(1.0, result.errorRate());
+    }
+}
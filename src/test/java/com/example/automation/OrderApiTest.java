@@ -1,72 +1,75 @@
 package com.example.automation;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+@ExtendWith({SuiteReportExtension.class, Shards.Condition.class})
 class OrderApiTest {
 
-    private static final HttpClient CLIENT = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(5))
-            .build();
-    private static final ObjectMapper MAPPER = new ObjectMapper();
-
-    private final String baseUrl = Optional.ofNullable(System.getenv("API_BASE_URL"))
-            .orElse("http://localhost:9090");
-
-    @BeforeAll
-    static void resetCurlReport() {
-        CurlReporter.resetReport();
+    static final String CREATE_ORDER_ENDPOINT = "POST /api/orders";
+    static final String ORDER_STATUS_ENDPOINT = "GET /api/orders/{id}/status";
+    static final String DEFAULT_ORDER_ID = "abcd-12345";
+    static final HttpClient CLIENT = HttpClients.create(HttpClients.Profile.fromSystemProperties());
+    static final ObjectMapper MAPPER = new ObjectMapper();
+    static final JsonExpectations STATUS_EXPECTATIONS = new JsonExpectations(List.of(
+            new JsonExpectations.Expectation("overallStatus == \"ACTIVE\"",
+                    "src/main/java/com/example/apptestpipeline/order/OrderController.java",
+                    null,
+                    "AssertionFailedError at getOrderStatus(TestInfo)::assertOverallStatus"),
+            new JsonExpectations.Expectation("stage == \"PACKING\"",
+                    "src/main/java/com/example/apptestpipeline/order/OrderController.java:getOrderStatus",
+                    "commit fcf5a72c modified OrderController.java",
+                    "AssertionFailedError at getOrderStatus(TestInfo)::assertStage"),
+            new JsonExpectations.Expectation("progressPercent == 50",
+                    "src/main/java/com/example/apptestpipeline/order/OrderController.java",
+                    null,
+                    "AssertionFailedError at getOrderStatus(TestInfo)::assertProgressPercent"),
+            new JsonExpectations.Expectation("payment.status == \"CLEARED\"",
+                    "src/main/java/com/example/apptestpipeline/order/OrderController.java:133 (PaymentStatus status literal)",
+                    "commit c926a9357e0762d9 touched OrderController.java",
+                    "AssertionFailedError at getOrderStatus(TestInfo)::assertPaymentCleared")
+    ));
+
+    private final String baseUrl = defaultBaseUrl();
+
+    static String defaultBaseUrl() {
+        if (OrderStubServer.enabled()) {
+            return OrderStubServer.shared().baseUrl();
+        }
+        return Optional.ofNullable(System.getenv("API_BASE_URL"))
+                .orElse("http://localhost:9090");
     }
 
     @Test
     void createOrder(TestInfo testInfo) throws Exception {
-        Map<String, Object> payload = Map.of(
-"customerId", "cust-123",
-                "productSku", "sku-456",
-                "quantity", 2,
-                "shippingAddress", "123 Main St, Springfield",
-                "unitPrice", 19.99,
-                "deliveryNotes", "Leave at porch",
-                "promoCode", "SPRING10",
-                "giftWrap", true,
-                "requestedDeliveryDate", "2024-05-30"
-        );
-
-        String body = MAPPER.writeValueAsString(payload);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + "/api/orders"))
-                .timeout(Duration.ofSeconds(10))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .build();
+        String body = createOrderBody();
+        HttpRequest request = createOrderRequest(baseUrl, body);
 
         HttpResponse<String> response;
         try {
-            response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+            response = RequestTimings.send(CLIENT, CREATE_ORDER_ENDPOINT, request, BoundedBodyHandler.ofReportedString());
         } catch (Exception e) {
             CurlReporter.logFailure(testInfo.getDisplayName(), request, body, null, e, null);
             throw e;
         }
 
         try {
-            int status = response.statusCode();
-            assertTrue(status == 200 || status == 201,
-                    "Expected 200/201 from POST /api/orders but got " + status + " with body: " + response.body());
-            assertFalse(response.body().isEmpty(), "Response body should contain order info or error details.");
+            assertOrderCreated(response);
             CurlReporter.log(testInfo.getDisplayName(), request, body, response, "SUCCESS");
         } catch (AssertionError e) {
             String stackTop = "AssertionFailedError at createOrder(TestInfo)::assertStatusOrBody";
@@ -85,26 +88,21 @@ class OrderApiTest {
 
     @Test
     void getOrderStatus(TestInfo testInfo) throws Exception {
-        String orderId = "abcd-12345";
-        HttpRequest request = HttpRequest.newBuilder()
-.uri(URI.create(baseUrl + "/api/orders/" + orderId + "/status"))
-                .timeout(Duration.ofSeconds(10))
-                .GET()
-                .build();
+        HttpRequest request = orderStatusRequest(baseUrl, DEFAULT_ORDER_ID);
 
-        HttpResponse<String> response;
+        JsonExpectations.Verdict verdict;
         try {
-            response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+            verdict = RequestTimings.exchange(CLIENT, ORDER_STATUS_ENDPOINT, request, STATUS_EXPECTATIONS::check);
         } catch (Exception e) {
             CurlReporter.logFailure(testInfo.getDisplayName(), request, null, null, e, null);
             throw e;
         }
+        HttpResponse<String> response = verdict.response;
 
         try {
             int status = response.statusCode();
             try {
-                assertTrue(status == 200 || status == 201,
-                        "Expected 200/201 from GET /api/orders/{id}/status but got " + status + " with body: " + response.body());
+                assertStatusOk(response);
             } catch (AssertionError e) {
                 String recentChange = null;
                 if (status >= 500) {
@@ -125,76 +123,19 @@ class OrderApiTest {
                 throw e;
             }
 
-            var root = MAPPER.readTree(response.body());
-            
-            // Check overallStatus
-            String actualOverallStatus = root.get("overallStatus").asText();
-            try {
-                assertTrue(actualOverallStatus.equals("ACTIVE"), "overallStatus should be ACTIVE");
-            } catch (AssertionError e) {
-                CurlReporter.FailureDetails details = new CurlReporter.FailureDetails(
-                        "overallStatus == \"ACTIVE\"",
-                        "\"ACTIVE\"",
-                        "\"" + actualOverallStatus + "\"",
-                        "src/main/java/com/example/apptestpipeline/order/OrderController.java",
-                        null,
-                        "AssertionFailedError at getOrderStatus(TestInfo)::assertOverallStatus"
-                );
-                CurlReporter.logFailure(testInfo.getDisplayName(), request, null, response, e, details);
-                throw e;
-            }
-            
-            // Check stage
-            String actualStage = root.get("stage").asText();
-            try {
-                assertTrue(actualStage.equals("PACKING"), "stage should be PACKING");
-            } catch (AssertionError e) {
-                CurlReporter.FailureDetails details = new CurlReporter.FailureDetails(
-                        "stage == \"PACKING\"",
-                        "\"PACKING\"",
-                        "\"" + actualStage + "\"",
-                        "src/main/java/com/example/apptestpipeline/order/OrderController.java:getOrderStatus",
-                        "commit fcf5a72c modified OrderController.java",
-                        "AssertionFailedError at getOrderStatus(TestInfo)::assertStage"
-                );
-                CurlReporter.logFailure(testInfo.getDisplayName(), request, null, response, e, details);
-                throw e;
-            }
-            
-            // Check progressPercent
-            int actualProgress = root.get("progressPercent").asInt();
-            try {
-                assertTrue(actualProgress == 50, "progressPercent should be 50");
-            } catch (AssertionError e) {
-                CurlReporter.FailureDetails details = new CurlReporter.FailureDetails(
-                        "progressPercent == 50",
-                        "50",
-                        String.valueOf(actualProgress),
-                        "src/main/java/com/example/apptestpipeline/order/OrderController.java",
-                        null,
-                        "AssertionFailedError at getOrderStatus(TestInfo)::assertProgressPercent"
-                );
-                CurlReporter.logFailure(testInfo.getDisplayName(), request, null, response, e, details);
-                throw e;
+            if (verdict.parseError != null) {
+                throw verdict.parseError;
             }
 
-            // Check payment status
-            var payment = root.get("payment");
-            assertTrue(payment != null && !payment.isNull(), "payment object should be present");
-            String actualPaymentStatus = payment.get("status").asText();
-            try {
-                assertTrue(actualPaymentStatus.equals("CLEARED"), "payment.status should be CLEARED");
-            } catch (AssertionError e) {
-                CurlReporter.FailureDetails details = new CurlReporter.FailureDetails(
-                        "payment.status == \"CLEARED\"",
-                        "\"CLEARED\"",
-                        "\"" + actualPaymentStatus + "\"",
-                        "src/main/java/com/example/apptestpipeline/order/OrderController.java:133 (PaymentStatus status literal)",
-                        "commit c926a9357e0762d9 touched OrderController.java",
-                        "AssertionFailedError at getOrderStatus(TestInfo)::assertPaymentCleared"
-                );
-                CurlReporter.logFailure(testInfo.getDisplayName(), request, null, response, e, details);
-                throw e;
+            // overallStatus, stage, progressPercent and payment.status are checked in one streaming pass
+            if (verdict.mismatch != null) {
+                try {
+                    verdict.mismatch.fail();
+                } catch (AssertionError e) {
+                    CurlReporter.logFailure(testInfo.getDisplayName(), request, null, response, e,
+                            verdict.mismatch.toFailureDetails());
+                    throw e;
+                }
             }
 
             CurlReporter.log(testInfo.getDisplayName(), request, null, response, "SUCCESS");
@@ -215,4 +156,57 @@ class OrderApiTest {
             throw e;
         }
     }
+
+    static String createOrderBody() throws IOException {
+        Map<String, Object> payload = Map.of(
+                "customerId", "cust-123",
+                "productSku", "sku-456",
+                "quantity", 2,
+                "shippingAddress", "123 Main St, Springfield",
+                "unitPrice", 19.99,
+                "deliveryNotes", "Leave at porch",
+                "promoCode", "SPRING10",
+                "giftWrap", true,
+                "requestedDeliveryDate", "2024-05-30"
+        );
+        return MAPPER.writeValueAsString(payload);
+    }
+
+    static HttpRequest createOrderRequest(String baseUrl, String body) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/api/orders"))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    static HttpRequest orderStatusRequest(String baseUrl, String orderId) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/api/orders/" + orderId + "/status"))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+    }
+
+    static void assertOrderCreated(HttpResponse<String> response) {
+        int status = response.statusCode();
+        assertTrue(status == 200 || status == 201,
+                "Expected 200/201 from POST /api/orders but got " + status + " with body: " + response.body());
+        assertFalse(response.body().isEmpty(), "Response body should contain order info or error details.");
+    }
+
+    /**
+     * Status-endpoint check for the load engine, which verifies the body against
+     * {@link #STATUS_EXPECTATIONS} while it streams; see {@link LoadGenerator.Endpoint}.
+     */
+    static void assertOrderStatus(HttpResponse<String> response) {
+        assertStatusOk(response);
+    }
+
+    private static void assertStatusOk(HttpResponse<String> response) {
+        int status = response.statusCode();
+        assertTrue(status == 200 || status == 201,
+                "Expected 200/201 from GET /api/orders/{id}/status but got " + status + " with body: " + response.body());
+    }
 }
@@ -0,0 +1,155 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One recorded order request plus its expectations, read from a single JSONL line:
+ *
+ * <pre>
+ * {"name":"status of abcd-12345","method":"GET","path":"/api/orders/abcd-12345/status",
+ *  "endpoint":"GET /api/orders/{id}/status","expectStatus":[200,201],
+ *  "expectJson":["overallStatus == ACTIVE","payment.status == CLEARED"],
+ *  "suspectFile":"src/main/java/com/example/apptestpipeline/order/OrderController.java"}
+ * </pre>
+ *
+ * {@code headers}, {@code body} (object or raw string), {@code endpoint}, {@code expectStatus}
+ * (default 200/201), {@code expectJson} and {@code suspectFile} are optional.
+ */
+final class OrderCase {
+
+    private static final List<Integer> DEFAULT_STATUSES = List.of(200, 201);
+    private static final String DEFAULT_SUSPECT_FILE = "src/main/java/com/example/apptestpipeline/order/OrderController.java";
+
+    final long lineNumber;
+    final String name;
+    final String method;
+    final String path;
+    final String endpoint;
+    final Map<String, String> headers;
+    final String body;
+    final Set<Integer> expectedStatuses;
+    final String suspectFile;
+    private final JsonExpectations expectations;
+
+    private OrderCase(long lineNumber, String name, String method, String path, String endpoint,
+                      Map<String, String> headers, String body, Set<Integer> expectedStatuses,
+                      String suspectFile, JsonExpectations expectations) {
+        this.lineNumber = lineNumber;
+        this.name = name;
+        this.method = method;
+        this.path = path;
+        this.endpoint = endpoint;
+        this.headers = headers;
+        this.body = body;
+        this.expectedStatuses = expectedStatuses;
+        this.suspectFile = suspectFile;
+        this.expectations = expectations;
+    }
+
+    /**
+     * Parses one line; returns null for blank lines and JSON objects that are not order cases
+     * (no {@code method}/{@code path}). Malformed JSON throws {@link IOException}, a malformed
+     * {@code expectJson} expression {@link IllegalArgumentException}.
+     */
+    static OrderCase parse(long lineNumber, String line) throws IOException {
+        if (line.isBlank()) {
+            return null;
+        }
+        JsonNode node = OrderApiTest.MAPPER.readTree(line);
+        if (!node.hasNonNull("method") || !node.hasNonNull("path")) {
+            return null;
+        }
+        String method = node.get("method").asText().toUpperCase(Locale.ROOT);
+        String path = node.get("path").asText();
+        String name = node.hasNonNull("name") ? node.get("name").asText() : method + " " + path;
+        String endpoint = node.hasNonNull("endpoint") ? node.get("endpoint").asText() : method + " " + path;
+        String suspectFile = node.hasNonNull("suspectFile") ? node.get("suspectFile").asText() : DEFAULT_SUSPECT_FILE;
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (node.has("headers")) {
+            node.get("headers").fields().forEachRemaining(header -> headers.put(header.getKey(), header.getValue().asText()));
+        }
+
+        String body = null;
+        JsonNode bodyNode = node.get("body");
+        if (bodyNode != null && !bodyNode.isNull()) {
+            body = bodyNode.isTextual() ? bodyNode.asText() : OrderApiTest.MAPPER.writeValueAsString(bodyNode);
+            headers.putIfAbsent("Content-Type", "application/json");
+        }
+
+        Set<Integer> statuses = new LinkedHashSet<>();
+        if (node.has("expectStatus")) {
+            node.get("expectStatus").forEach(status -> statuses.add(status.asInt()));
+        } else {
+            statuses.addAll(DEFAULT_STATUSES);
+        }
+
+        List<JsonExpectations.Expectation> expectations = new ArrayList<>();
+        if (node.has("expectJson")) {
+            for (JsonNode expression : node.get("expectJson")) {
+                String text = expression.asText();
+                int operator = text.indexOf("==");
+                if (operator <= 0) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected '<path> == <value>' but got: " + text);
+                }
+                expectations.add(new JsonExpectations.Expectation(text, suspectFile, null,
+                        "AssertionFailedError at " + name + "::" + text.substring(0, operator).trim()));
+            }
+        }
+
+        return new OrderCase(lineNumber, name, method, path, endpoint, headers, body, statuses,
+                suspectFile, new JsonExpectations(expectations));
+    }
+
+    /**
+     * Unique within the file, unlike {@code name}, which defaults to method and path and so is
+     * shared by every unnamed case of an endpoint. Keys the {@link ResultCache} and picks the
+     * case's {@link Shards shard}.
+     */
+    String id() {
+        return name + "#" + lineNumber;
+    }
+
+    String displayName() {
+        return "line " + lineNumber + ": " + name;
+    }
+
+    HttpRequest toRequest(String baseUrl) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(10))
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        headers.forEach(builder::header);
+        return builder.build();
+    }
+
+    JsonExpectations.Verdict check(HttpResponse<InputStream> response) throws IOException {
+        return expectations.check(response);
+    }
+
+    CurlReporter.FailureDetails statusFailure(int actual) {
+        return new CurlReporter.FailureDetails(
+                "status code in " + expectedStatuses,
+                String.valueOf(expectedStatuses),
+                String.valueOf(actual),
+                suspectFile,
+                null,
+                "AssertionFailedError at " + name + "::assertStatusCode");
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.automation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.opentest4j.TestAbortedException;
+
+/**
+ * Replays every case in a JSONL file given as {@code -PcasesFile}, failing if that file does not
+ * exist. Without the property there are no cases, since the bundled
+ * {@code src/test/resources/order-cases.example.jsonl} only repeats {@link OrderApiTest}. The file is streamed line by line and up to
+ * {@code -PcasesParallelism} cases run ahead of JUnit on {@link TaskExecutors#perTask}; each
+ * dynamic test only waits for its own result, so memory stays bounded by the window. With
+ * {@code -PresultCache=true} the order and selection come from the {@link ResultCache}. Cases
+ * of other shards ({@link Shards}) are left out.
+ */
+@ExtendWith(SuiteReportExtension.class)
+class OrderCaseTest {
+
+    @TestFactory
+    Stream<DynamicTest> recordedOrderCases() throws IOException {
+        Path casesPath = casesPath(System.getProperty("cases.file"));
+        if (casesPath == null) {
+            return Stream.empty();
+        }
+        int parallelism = Integer.getInteger("cases.parallelism", 32);
+        String baseUrl = OrderApiTest.defaultBaseUrl();
+        ResultCache cache = ResultCache.suite(OrderApiTest.CLIENT, baseUrl);
+        // The stub binds a random port, so it is fingerprinted by name rather than URL.
+        String target = OrderStubServer.enabled() ? "stub" : baseUrl;
+        ExecutorService executor = TaskExecutors.perTask("order-case");
+        return cases(casesPath, parallelism, baseUrl, target, cache, executor).onClose(executor::shutdownNow);
+    }
+
+    /**
+     * The cases file named by {@code -PcasesFile}, or null when the property is unset.
+     */
+    static Path casesPath(String casesFile) {
+        if (casesFile == null || casesFile.isBlank()) {
+            return null;
+        }
+        Path path = Path.of(casesFile);
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("Cases file given as -PcasesFile does not exist: " + path.toAbsolutePath());
+        }
+        return path;
+    }
+
+    @Test
+    void missingCasesFileFailsButAnUnsetPropertySkips(@TempDir Path tempDir) {
+        Path missing = tempDir.resolve("missing.jsonl");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> casesPath(missing.toString()));
+
+        assertTrue(error.getMessage().contains(missing.toAbsolutePath().toString()), error.getMessage());
+        assertNull(casesPath(null));
+        assertNull(casesPath(" "));
+    }
+
+    @Test
+    void warmCacheKeepsTheParallelismWindow(@TempDir Path tempDir) throws Throwable {
+        Path casesPath = tempDir.resolve("cases.jsonl");
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            lines.append("{\"name\":\"status ").append(i).append("\",\"method\":\"GET\",\"path\":\"/api/orders/w-")
+                    .append(i).append("/status\",\"endpoint\":\"test GET /api/orders/{id}/status\"}\n");
+        }
+        Files.writeString(casesPath, lines, StandardCharsets.UTF_8);
+        Path cachePath = tempDir.resolve("results.tsv");
+        ExecutorService executor = TaskExecutors.perTask("order-case-test");
+        try (OrderStubServer stub = OrderStubServer.start(OrderStubServer.Script.healthy().withLatency(Duration.ofMillis(20)))) {
+            ResultCache cold = ResultCache.load(cachePath, "v1", 0);
+            executeAll(cases(casesPath, 4, stub.baseUrl(), "stub", cold, executor));
+            cold.save();
+            assertTrue(stub.peakConcurrency() <= 4, "cold run peaked at " + stub.peakConcurrency());
+
+            stub.resetPeakConcurrency();
+            // Sampling every pass makes the whole file run in the second, REST pass.
+            ResultCache warm = ResultCache.load(cachePath, "v1", 1.0);
+            assertEquals(40, executeAll(cases(casesPath, 4, stub.baseUrl(), "stub", warm, executor)).size());
+            assertTrue(stub.peakConcurrency() <= 4, "warm run peaked at " + stub.peakConcurrency());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void sameNamedCasesAreCachedSeparately(@TempDir Path tempDir) throws Throwable {
+        String create = "{\"method\":\"POST\",\"path\":\"/api/orders\",\"endpoint\":\"test POST /api/orders\",\"body\":";
+        Path casesPath = tempDir.resolve("cases.jsonl");
+        Path cachePath = tempDir.resolve("results.tsv");
+        ExecutorService executor = TaskExecutors.perTask("order-case-test");
+        try (OrderStubServer stub = OrderStubServer.start(OrderStubServer.Script.healthy())) {
+            Files.writeString(casesPath, create + "{\"quantity\":1}}\n" + create + "{\"quantity\":2}}\n", StandardCharsets.UTF_8);
+            ResultCache first = ResultCache.load(cachePath, "v1", 0);
+            executeAll(cases(casesPath, 4, stub.baseUrl(), "stub", first, executor));
+            first.save();
+            assertEquals(3, Files.readAllLines(cachePath).size(), "header plus one entry per case");
+
+            Files.writeString(casesPath, create + "{\"quantity\":1}}\n" + create + "{\"quantity\":3}}\n", StandardCharsets.UTF_8);
+            ResultCache second = ResultCache.load(cachePath, "v1", 0);
+            assertEquals(List.of("line 2: POST /api/orders ran", "line 1: POST /api/orders skipped"),
+                    executeAll(cases(casesPath, 4, stub.baseUrl(), "stub", second, executor)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The dynamic tests for {@code casesPath}: one pass without a cache, otherwise failed, new and
+     * changed cases first and then the rest, the file being streamed once per pass.
+     */
+    static Stream<DynamicTest> cases(Path casesPath, int parallelism, String baseUrl, String target,
+                                     ResultCache cache, ExecutorService executor) {
+        Passes passes = new Passes(cache == null ? List.of(Pass.ALL) : List.of(Pass.FIRST, Pass.REST),
+                which -> stream(casesPath, lines -> new Window(lines, executor, parallelism, baseUrl, target, cache, which)));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(passes, Spliterator.ORDERED), false)
+                .onClose(passes::close);
+    }
+
+    /**
+     * Runs the tests in order; returns each display name with "ran" or "skipped".
+     */
+    private static List<String> executeAll(Stream<DynamicTest> tests) throws Throwable {
+        List<String> executed = new ArrayList<>();
+        try (tests) {
+            for (Iterator<DynamicTest> it = tests.iterator(); it.hasNext(); ) {
+                DynamicTest test = it.next();
+                try {
+                    test.getExecutable().execute();
+                    executed.add(test.getDisplayName() + " ran");
+                } catch (TestAbortedException e) {
+                    executed.add(test.getDisplayName() + " skipped");
+                }
+            }
+        }
+        return executed;
+    }
+
+    private static Stream<DynamicTest> stream(Path casesPath, Function<Iterator<String>, Window> window) {
+        BufferedReader reader;
+        try {
+            reader = Files.newBufferedReader(casesPath, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(window.apply(reader.lines().iterator()),
+                        Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    static void run(OrderCase orderCase, String baseUrl) throws Exception {
+        String testName = orderCase.displayName();
+        HttpRequest request = orderCase.toRequest(baseUrl);
+
+        JsonExpectations.Verdict verdict;
+        try {
+            verdict = RequestTimings.exchange(OrderApiTest.CLIENT, orderCase.endpoint, request, orderCase::check);
+        } catch (Exception e) {
+            CurlReporter.FailureDetails details = new CurlReporter.FailureDetails(
+                    "request completes",
+                    "an HTTP response",
+                    e.getClass().getSimpleName() + ": " + e.getMessage(),
+                    orderCase.suspectFile,
+                    null,
+                    e.getClass().getSimpleName() + " at " + orderCase.name);
+            CurlReporter.logFailure(testName, request, orderCase.body, null, e, details);
+            throw e;
+        }
+        HttpResponse<String> response = verdict.response;
+
+        int status = response.statusCode();
+        try {
+            assertTrue(orderCase.expectedStatuses.contains(status),
+                    "Expected " + orderCase.expectedStatuses + " from " + orderCase.method + " " + orderCase.path
+                            + " but got " + status + " with body: " + response.body());
+        } catch (AssertionError e) {
+            CurlReporter.logFailure(testName, request, orderCase.body, response, e, orderCase.statusFailure(status));
+            throw e;
+        }
+
+        if (verdict.parseError != null) {
+            CurlReporter.FailureDetails details = new CurlReporter.FailureDetails(
+                    "test execution",
+                    "successful test execution",
+                    verdict.parseError.getClass().getSimpleName() + ": " + verdict.parseError.getMessage(),
+                    orderCase.suspectFile,
+                    null,
+                    verdict.parseError.getClass().getSimpleName() + " at " + orderCase.name);
+            CurlReporter.logFailure(testName, request, orderCase.body, response, verdict.parseError, details);
+            throw verdict.parseError;
+        }
+        if (verdict.mismatch != null) {
+            try {
+                verdict.mismatch.fail();
+            } catch (AssertionError e) {
+                CurlReporter.logFailure(testName, request, orderCase.body, response, e,
+                        verdict.mismatch.toFailureDetails());
+                throw e;
+            }
+        }
+    }
+
+    private enum Pass {
+        ALL, FIRST, REST
+    }
+
+    /**
+     * Concatenates the passes lazily: a pass's file is opened, and its window starts sending,
+     * only once the previous pass is exhausted. ({@code Stream.concat} with {@code flatMap}
+     * would build the whole REST pass as soon as JUnit pulled the first test.)
+     */
+    private static final class Passes implements Iterator<DynamicTest> {
+        private final Iterator<Pass> remaining;
+        private final Function<Pass, Stream<DynamicTest>> open;
+        private Stream<DynamicTest> stream;
+        private Iterator<DynamicTest> current = Collections.emptyIterator();
+
+        Passes(List<Pass> passes, Function<Pass, Stream<DynamicTest>> open) {
+            this.remaining = passes.iterator();
+            this.open = open;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && remaining.hasNext()) {
+                close();
+                stream = open.apply(remaining.next());
+                current = stream.iterator();
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public DynamicTest next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void close() {
+            if (stream != null) {
+                stream.close();
+                stream = null;
+            }
+        }
+    }
+
+    /**
+     * Keeps up to {@code parallelism} cases in flight ahead of the test JUnit is executing.
+     * With a {@link ResultCache}, {@link Pass#FIRST} takes only failed, new and changed cases and
+     * {@link Pass#REST} the others, skipping those the cache says passed unchanged.
+     */
+    private static final class Window implements Iterator<DynamicTest> {
+        private final Iterator<String> lines;
+        private final ExecutorService executor;
+        private final int parallelism;
+        private final String baseUrl;
+        private final String target;
+        private final ResultCache cache;
+        private final Pass pass;
+        private final Deque<DynamicTest> inFlight = new ArrayDeque<>();
+        private long lineNumber;
+
+        Window(Iterator<String> lines, ExecutorService executor, int parallelism, String baseUrl, String target,
+               ResultCache cache, Pass pass) {
+            this.lines = lines;
+            this.executor = executor;
+            this.parallelism = Math.max(1, parallelism);
+            this.baseUrl = baseUrl;
+            this.target = target;
+            this.cache = cache;
+            this.pass = pass;
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return !inFlight.isEmpty();
+        }
+
+        @Override
+        public DynamicTest next() {
+            fill();
+            DynamicTest next = inFlight.poll();
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            return next;
+        }
+
+        private void fill() {
+            while (inFlight.size() < parallelism && lines.hasNext()) {
+                String line = lines.next();
+                long number = ++lineNumber;
+                OrderCase orderCase;
+                try {
+                    orderCase = OrderCase.parse(number, line);
+                } catch (IOException | RuntimeException e) {
+                    if (pass != Pass.REST && Shards.owns(line)) {
+                        inFlight.add(dynamicTest("line " + number + ": unparseable case", () -> {
+                            throw e;
+                        }));
+                    }
+                    continue;
+                }
+                if (orderCase == null || !Shards.owns(orderCase.id())) {
+                    continue;
+                }
+                String fingerprint = cache == null ? null : ResultCache.fingerprint(target, line);
+                if (pass != Pass.ALL && (pass == Pass.FIRST) != cache.runsFirst(orderCase.id(), fingerprint)) {
+                    continue;
+                }
+                if (pass == Pass.REST && cache.decide(orderCase.id(), fingerprint) == ResultCache.Decision.SKIP) {
+                    inFlight.add(dynamicTest(orderCase.displayName(), () ->
+                            Assumptions.abort("passed unchanged against deployment " + cache.version())));
+                    continue;
+                }
+                Future<?> result = executor.submit(() -> {
+                    boolean passed = false;
+                    try {
+                        run(orderCase, baseUrl);
+                        passed = true;
+                    } finally {
+                        if (cache != null) {
+                            cache.record(orderCase.id(), fingerprint, passed);
+                        }
+                    }
+                    return null;
+                });
+                inFlight.add(dynamicTest(orderCase.displayName(), () -> await(result)));
+            }
+        }
+
+        private static void await(Future<?> result) throws Throwable {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.automation;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Load run over the same requests and assertions as {@link OrderApiTest}. Disabled unless
+ * the build is started with {@code -PloadTest=true}; see README for the other knobs.
+ */
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@ExtendWith(SuiteReportExtension.class)
+class OrderLoadTest {
+
+    private static final Path LOAD_REPORT_PATH = Path.of("build", "reports", "load-report.txt");
+
+    @Test
+    void orderEndpointsUnderLoad() throws Exception {
+        String baseUrl = OrderApiTest.defaultBaseUrl();
+        String body = OrderApiTest.createOrderBody();
+        LoadGenerator generator = new LoadGenerator(OrderApiTest.CLIENT, List.of(
+                new LoadGenerator.Endpoint(OrderApiTest.CREATE_ORDER_ENDPOINT,
+                        () -> OrderApiTest.createOrderRequest(baseUrl, body),
+                        OrderApiTest::assertOrderCreated),
+                new LoadGenerator.Endpoint(OrderApiTest.ORDER_STATUS_ENDPOINT,
+                        () -> OrderApiTest.orderStatusRequest(baseUrl, OrderApiTest.DEFAULT_ORDER_ID),
+                        OrderApiTest.STATUS_EXPECTATIONS, OrderApiTest::assertOrderStatus)
+        ));
+
+        LoadGenerator.Result result = generator.run(LoadGenerator.Profile.fromSystemProperties());
+        result.writeTo(LOAD_REPORT_PATH);
+        SuiteMetrics.loadFinished(result);
+        System.out.println(result.render());
+
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "1.0"));
+        assertTrue(result.errorRate() <= maxErrorRate,
+                "Error rate " + result.errorRate() + " exceeded load.maxErrorRate " + maxErrorRate);
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process stand-in for the order service, serving {@code POST /api/orders} and
+ * {@code GET /api/orders/{id}/status} from a scripted {@link Script}. Binds an ephemeral
+ * loopback port and runs handlers on {@link TaskExecutors#perTask}, so it starts in a few
+ * milliseconds and keeps up with the load generator. The script can be swapped while
+ * running to inject latency, error rates or wrong field values.
+ */
+final class OrderStubServer implements AutoCloseable {
+
+    private static final String ORDERS_PATH = "/api/orders";
+    private static final String STATUS_SUFFIX = "/status";
+    private static OrderStubServer shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong orderSequence = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+    private final AtomicLong active = new AtomicLong();
+    private final LongAccumulator peakActive = new LongAccumulator(Math::max, 0);
+    private volatile Script script;
+
+    private OrderStubServer(HttpServer server, ExecutorService executor, Script script) {
+        this.server = server;
+        this.executor = executor;
+        this.script = script;
+    }
+
+    static OrderStubServer start(Script script) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+            ExecutorService executor = TaskExecutors.perTask("order-stub");
+            OrderStubServer stub = new OrderStubServer(server, executor, script);
+            server.createContext(ORDERS_PATH, stub::handle);
+            server.setExecutor(executor);
+            server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start order stub server", e);
+        }
+    }
+
+    /**
+     * True when the suite should run against the embedded stub ({@code -PuseStub=true}).
+     */
+    static boolean enabled() {
+        return Boolean.getBoolean("stub.enabled");
+    }
+
+    /**
+     * JVM-wide stub configured from {@code stub.*} system properties, started on first use and
+     * stopped on JVM exit.
+     */
+    static synchronized OrderStubServer shared() {
+        if (shared == null) {
+            shared = start(Script.fromSystemProperties());
+            OrderStubServer stub = shared;
+            Runtime.getRuntime().addShutdownHook(new Thread(stub::close, "order-stub-shutdown"));
+        }
+        return shared;
+    }
+
+    String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    void script(Script script) {
+        this.script = script;
+    }
+
+    long requestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Most requests handled at once since the last {@link #resetPeakConcurrency()}.
+     */
+    long peakConcurrency() {
+        return peakActive.get();
+    }
+
+    void resetPeakConcurrency() {
+        peakActive.reset();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        peakActive.accumulate(active.incrementAndGet());
+        Script current = script;
+        try (exchange) {
+            drain(exchange.getRequestBody());
+            if (!current.latency.isZero()) {
+                Thread.sleep(current.latency.toMillis());
+            }
+            if (current.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < current.errorRate) {
+                respond(exchange, current.errorStatus, "{\"error\":\"Injected failure\",\"status\":"
+                        + current.errorStatus + "}");
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            if ("POST".equals(method) && path.equals(ORDERS_PATH)) {
+                respond(exchange, 201, "{\"orderId\":\"ord-" + orderSequence.incrementAndGet()
+                        + "\",\"status\":\"CREATED\"}");
+            } else if ("GET".equals(method) && path.startsWith(ORDERS_PATH + "/") && path.endsWith(STATUS_SUFFIX)
+                    && path.length() > ORDERS_PATH.length() + 1 + STATUS_SUFFIX.length()) {
+                String orderId = path.substring(ORDERS_PATH.length() + 1, path.length() - STATUS_SUFFIX.length());
+                respond(exchange, 200, current.statusBody(orderId));
+            } else {
+                respond(exchange, 404, "{\"error\":\"Not Found\",\"path\":\"" + path + "\"}");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private static void drain(InputStream body) throws IOException {
+        byte[] buffer = new byte[8192];
+        while (body.read(buffer) != -1) {
+            // Discard; the stub does not validate request payloads.
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Immutable response script. Values default to what {@link OrderApiTest} expects.
+     */
+    static final class Script {
+        final String overallStatus;
+        final String stage;
+        final int progressPercent;
+        final String paymentStatus;
+        final Duration latency;
+        final double errorRate;
+        final int errorStatus;
+
+        Script(String overallStatus, String stage, int progressPercent, String paymentStatus,
+               Duration latency, double errorRate, int errorStatus) {
+            this.overallStatus = overallStatus;
+            this.stage = stage;
+            this.progressPercent = progressPercent;
+            this.paymentStatus = paymentStatus;
+            this.latency = latency;
+            this.errorRate = errorRate;
+            this.errorStatus = errorStatus;
+        }
+
+        static Script healthy() {
+            return new Script("ACTIVE", "PACKING", 50, "CLEARED", Duration.ZERO, 0.0, 500);
+        }
+
+        /**
+         * Reads {@code stub.overallStatus}, {@code stub.stage}, {@code stub.progressPercent},
+         * {@code stub.paymentStatus}, {@code stub.latencyMs}, {@code stub.errorRate} and
+         * {@code stub.errorStatus}, falling back to {@link #healthy()}.
+         */
+        static Script fromSystemProperties() {
+            Script defaults = healthy();
+            return new Script(
+                    System.getProperty("stub.overallStatus", defaults.overallStatus),
+                    System.getProperty("stub.stage", defaults.stage),
+                    Integer.getInteger("stub.progressPercent", defaults.progressPercent),
+                    System.getProperty("stub.paymentStatus", defaults.paymentStatus),
+                    Duration.ofMillis(Long.getLong("stub.latencyMs", 0L)),
+                    Double.parseDouble(System.getProperty("stub.errorRate", "0")),
+                    Integer.getInteger("stub.errorStatus", defaults.errorStatus));
+        }
+
+        Script withLatency(Duration latency) {
+            return new Script(overallStatus, stage, progressPercent, paymentStatus, latency, errorRate, errorStatus);
+        }
+
+        Script withErrors(double errorRate, int errorStatus) {
+            return new Script(overallStatus, stage, progressPercent, paymentStatus, latency, errorRate, errorStatus);
+        }
+
+        Script withPaymentStatus(String paymentStatus) {
+            return new Script(overallStatus, stage, progressPercent, paymentStatus, latency, errorRate, errorStatus);
+        }
+
+        String statusBody(String orderId) {
+            return "{\"orderId\":\"" + orderId + "\",\"overallStatus\":\"" + overallStatus
+                    + "\",\"stage\":\"" + stage + "\",\"progressPercent\":" + progressPercent
+                    + ",\"payment\":{\"status\":\"" + paymentStatus + "\"}}";
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class OrderStubServerTest {
+
+    @Test
+    void healthyScriptSatisfiesOrderAssertions() throws Exception {
+        try (OrderStubServer stub = OrderStubServer.start(OrderStubServer.Script.healthy())) {
+            HttpResponse<String> created = OrderApiTest.CLIENT.send(
+                    OrderApiTest.createOrderRequest(stub.baseUrl(), OrderApiTest.createOrderBody()),
+                    HttpResponse.BodyHandlers.ofString());
+            OrderApiTest.assertOrderCreated(created);
+
+            HttpResponse<String> status = OrderApiTest.CLIENT.send(
+                    OrderApiTest.orderStatusRequest(stub.baseUrl(), OrderApiTest.DEFAULT_ORDER_ID),
+                    BoundedBodyHandler.ofVerifiedString(OrderApiTest.STATUS_EXPECTATIONS));
+            OrderApiTest.assertOrderStatus(status);
+            assertTrue(status.body().contains("\"orderId\":\"abcd-12345\""));
+            assertEquals(2, stub.requestCount());
+        }
+    }
+
+    @Test
+    void scriptedFailuresAreServed() throws Exception {
+        try (OrderStubServer stub = OrderStubServer.start(OrderStubServer.Script.healthy())) {
+            stub.script(OrderStubServer.Script.healthy().withPaymentStatus("PENDING"));
+            assertThrows(IOException.class, () -> OrderApiTest.CLIENT.send(
+                    OrderApiTest.orderStatusRequest(stub.baseUrl(), OrderApiTest.DEFAULT_ORDER_ID),
+                    BoundedBodyHandler.ofVerifiedString(OrderApiTest.STATUS_EXPECTATIONS)));
+
+            stub.script(OrderStubServer.Script.healthy().withErrors(1.0, 503));
+            HttpResponse<String> failed = OrderApiTest.CLIENT.send(
+                    OrderApiTest.orderStatusRequest(stub.baseUrl(), OrderApiTest.DEFAULT_ORDER_ID),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(503, failed.statusCode());
+        }
+    }
+
+    @Test
+    void sustainsLoadGenerator() throws Exception {
+        try (OrderStubServer stub = OrderStubServer.start(OrderStubServer.Script.healthy()
+                .withLatency(Duration.ofMillis(1)))) {
+            String body = OrderApiTest.createOrderBody();
+            LoadGenerator generator = new LoadGenerator(OrderApiTest.CLIENT, List.of(
+                    new LoadGenerator.Endpoint(OrderApiTest.CREATE_ORDER_ENDPOINT,
+                            () -> OrderApiTest.createOrderRequest(stub.baseUrl(), body),
+                            OrderApiTest::assertOrderCreated),
+                    new LoadGenerator.Endpoint(OrderApiTest.ORDER_STATUS_ENDPOINT,
+                            () -> OrderApiTest.orderStatusRequest(stub.baseUrl(), OrderApiTest.DEFAULT_ORDER_ID),
+                            OrderApiTest.STATUS_EXPECTATIONS, OrderApiTest::assertOrderStatus)));
+
+            LoadGenerator.Result result = generator.run(new LoadGenerator.Profile(
+                    LoadGenerator.Mode.CLOSED, 16, 0, 0, Duration.ofSeconds(1), false));
+
+            assertEquals(0.0, result.errorRate());
+            assertTrue(stub.requestCount() > 100, "stub served only " + stub.requestCount() + " requests");
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.automation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only report writer backed by a single long-lived {@link FileChannel}.
+ * Callers hand over fully rendered entries; a background flusher drains the bounded
+ * queue and coalesces entries into large writes. {@link #flush()} blocks until every
+ * entry appended before the call has reached the channel. Each append reserves and returns the
+ * byte offset the entry will occupy in the file, so callers can index entries without re-reading
+ * it; the flusher writes every entry at its reserved offset, whatever order the queue holds them in.
+ * If the flusher is interrupted it writes what is already queued and stops; from then on appends
+ * and flushes fail instead of queueing entries nobody will write.
+ */
+final class ReportSink implements Closeable {
+
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int BATCH_BYTES = 1 << 20;
+    private static final long POLL_MILLIS = 50;
+
+    private final FileChannel channel;
+    private final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong position;
+    private final Object progress = new Object();
+    private final Thread flusher;
+
+    private long written; // guarded by progress
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private ReportSink(FileChannel channel, String name) throws IOException {
+        this.channel = channel;
+        this.position = new AtomicLong(channel.size());
+        this.flusher = new Thread(this::drainLoop, name);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Opens a sink on {@code path}, truncating it first when {@code truncate} is set and
+     * appending to the existing content otherwise.
+     */
+    static ReportSink open(Path path, boolean truncate) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        FileChannel channel = truncate
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)
+                : FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        return new ReportSink(channel, "report-sink-" + path.getFileName());
+    }
+
+    /**
+     * Queues a rendered entry and returns the file offset it starts at. Blocks when the queue
+     * is full so a stalled disk applies back-pressure instead of growing the heap; no lock is
+     * held while blocked. An interrupt is kept for the caller but does not drop the entry, since
+     * its offset is already reserved.
+     */
+    long append(String entry) {
+        if (closed) {
+            throw new IllegalStateException("Report sink is closed");
+        }
+        ensureFlusherRunning();
+        byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+        Pending pending = new Pending(position.getAndAdd(bytes.length), bytes);
+        appended.incrementAndGet();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (queue.offer(pending, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+                ensureFlusherRunning();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return pending.offset;
+    }
+
+    /**
+     * Waits until every entry appended before this call has been written to the channel.
+     */
+    void flush() {
+        long target = appended.get();
+        synchronized (progress) {
+            while (written < target && failure == null && flusher.isAlive()) {
+                try {
+                    progress.wait(POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while flushing report", e);
+                }
+            }
+            if (written < target) {
+                ensureFlusherRunning();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void drainLoop() {
+        List<Pending> pending = new ArrayList<>();
+        boolean interrupted = false;
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Pending first;
+                try {
+                    first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    break;
+                }
+                if (first == null) {
+                    continue;
+                }
+                pending.add(first);
+                queue.drainTo(pending);
+                write(pending);
+            }
+            if (interrupted) {
+                // The flag is clear until the end, so the interruptible channel stays open for the rest.
+                queue.drainTo(pending);
+                write(pending);
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void write(List<Pending> pending) throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        long bytes = writeAll(pending);
+        SuiteMetrics.reportWritten(bytes, System.nanoTime() - started);
+        long count = pending.size();
+        pending.clear();
+        synchronized (progress) {
+            written += count;
+            progress.notifyAll();
+        }
+    }
+
+    /**
+     * Writes the drained entries at their reserved offsets, coalescing runs of adjacent entries
+     * into one write; returns the bytes written.
+     */
+    private long writeAll(List<Pending> entries) throws IOException {
+        entries.sort(Comparator.comparingLong(entry -> entry.offset));
+        long bytes = 0;
+        long batchOffset = -1;
+        batch.clear();
+        for (Pending entry : entries) {
+            bytes += entry.bytes.length;
+            if (batchOffset >= 0 && (entry.offset != batchOffset + batch.position()
+                    || entry.bytes.length > batch.remaining())) {
+                drainBatch(batchOffset);
+                batchOffset = -1;
+            }
+            if (entry.bytes.length > batch.capacity()) {
+                writeFully(ByteBuffer.wrap(entry.bytes), entry.offset);
+            } else {
+                if (batchOffset < 0) {
+                    batchOffset = entry.offset;
+                }
+                batch.put(entry.bytes);
+            }
+        }
+        if (batchOffset >= 0) {
+            drainBatch(batchOffset);
+        }
+        return bytes;
+    }
+
+    private void drainBatch(long offset) throws IOException {
+        batch.flip();
+        writeFully(batch, offset);
+        batch.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    /**
+     * Throws the flusher's write failure, or an {@link IllegalStateException} if it stopped
+     * without one, such as after an interrupt.
+     */
+    private void ensureFlusherRunning() {
+        IOException error = failure;
+        if (error != null) {
+            throw new RuntimeException("Failed to write curl report", error);
+        }
+        if (!flusher.isAlive() && !closed) {
+            throw new IllegalStateException("Report sink flusher " + flusher.getName() + " has stopped");
+        }
+    }
+
+    private static final class Pending {
+        final long offset;
+        final byte[] bytes;
+
+        Pending(long offset, byte[] bytes) {
+            this.offset = offset;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.automation;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReportSinkTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void concurrentEntriesAreWrittenWholeAndFlushed() throws Exception {
+        Path report = tempDir.resolve("reports").resolve("curl-report.txt");
+        int threads = 16;
+        int perThread = 500;
+
+        Map<String, Long> offsets = new ConcurrentHashMap<>();
+        try (ReportSink sink = ReportSink.open(report, true)) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        String name = "t" + thread + "-" + i;
+                        offsets.put(name, sink.append("=== Test: " + name + " ===\nBody:\n" + "x".repeat(i + 1) + "\n\n"));
+                    }
+                });
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+            sink.flush();
+
+            String content = Files.readString(report, StandardCharsets.UTF_8);
+            String[] entries = content.split("\n\n");
+            assertEquals(threads * perThread, entries.length);
+            Set<String> names = new HashSet<>();
+            for (String entry : entries) {
+                String name = entry.substring("=== Test: ".length(), entry.indexOf(" ==="));
+                int size = Integer.parseInt(name.substring(name.indexOf('-') + 1));
+                assertEquals("x".repeat(size + 1), entry.substring(entry.indexOf("Body:\n") + "Body:\n".length()));
+                names.add(name);
+            }
+            assertEquals(threads * perThread, names.size());
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            offsets.forEach((name, offset) -> {
+                String header = "=== Test: " + name + " ===\n";
+                assertEquals(header, new String(bytes, offset.intValue(), header.length(), StandardCharsets.UTF_8));
+            });
+        }
+    }
+
+    @Test
+    void reopenWithoutTruncateAppends() throws Exception {
+        Path report = tempDir.resolve("curl-report.txt");
+        try (ReportSink sink = ReportSink.open(report, true)) {
+            sink.append("first\n");
+        }
+        try (ReportSink sink = ReportSink.open(report, false)) {
+            assertEquals(6, sink.append("second\n"));
+        }
+        assertEquals("first\nsecond\n", Files.readString(report, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void interruptedFlusherWritesWhatIsQueuedAndThenFailsFast() throws Exception {
+        Path report = tempDir.resolve("interrupted-report.txt");
+        ReportSink sink = ReportSink.open(report, true);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            String entry = "entry " + i + "\n";
+            sink.append(entry);
+            expected.append(entry);
+        }
+        Thread flusher = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("report-sink-" + report.getFileName()))
+                .findFirst().orElseThrow();
+
+        flusher.interrupt();
+        flusher.join(5000);
+
+        assertFalse(flusher.isAlive());
+        assertEquals(expected.toString(), Files.readString(report, StandardCharsets.UTF_8));
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> sink.append("late\n"));
+        assertTrue(error.getMessage().contains("has stopped"), error.getMessage());
+        sink.close();
+    }
+}
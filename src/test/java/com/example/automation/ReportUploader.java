@@ -0,0 +1,268 @@
+package com.example.automation;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Uploads curl-report.txt to the ingest API as {@code multipart/form-data} without forking
+ * curl or holding the report in memory. The file part is read from disk and gzip-compressed on
+ * the fly ({@code curl-report.txt.gz}, {@code application/gzip}) into a body of unknown length,
+ * which java.net.http sends with chunked transfer encoding. Connection failures, 429 and 5xx
+ * responses are retried with exponential backoff; the ingest endpoint has no resumable-upload
+ * contract, so each retry re-streams the report from the start. The response is read with
+ * Jackson's streaming parser, keeping only the fields the build logs.
+ *
+ * <p>Run by the {@code uploadCurlReport} Gradle task as
+ * {@code ReportUploader <report> <result.json> <buildId>}, configured through {@code upload.url},
+ * {@code upload.gzip} and {@code upload.attempts}.
+ */
+final class ReportUploader {
+
+    static final URI DEFAULT_INGEST_URI = URI.create("http://localhost:9000/api/ingest/build-report-file");
+    static final Set<String> RESPONSE_FIELDS = Set.of("node_id", "status", "embedding_model", "chunks_created",
+            "embeddings_status", "related_node_ids", "summary_text");
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final int ERROR_BODY_LIMIT = 2048;
+
+    private final HttpClient client;
+    private final URI uri;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final boolean gzip;
+
+    ReportUploader(HttpClient client, URI uri, int maxAttempts, Duration initialBackoff, boolean gzip) {
+        this.client = client;
+        this.uri = uri;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.gzip = gzip;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: ReportUploader <report> <result.json> <buildId>");
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ReportUploader uploader = new ReportUploader(client,
+                URI.create(System.getProperty("upload.url", DEFAULT_INGEST_URI.toString())),
+                Integer.getInteger("upload.attempts", 3),
+                Duration.ofSeconds(1),
+                Boolean.parseBoolean(System.getProperty("upload.gzip", "true")));
+        Result result = uploader.upload(Path.of(args[0]), args[2]);
+        result.writeTo(Path.of(args[1]));
+    }
+
+    Result upload(Path report, String buildId) throws InterruptedException {
+        if (!Files.isRegularFile(report)) {
+            return Result.failure(buildId, 0, 0, 0, "report not found at " + report);
+        }
+        String boundary = "----report-" + UUID.randomUUID();
+        Duration backoff = initialBackoff;
+        Result result = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            LongAdder sent = new LongAdder();
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofMinutes(10))
+                    .header("Accept", "application/json")
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofInputStream(() -> multipartBody(report, buildId, boundary, sent)))
+                    .build();
+            boolean retryable;
+            try {
+                HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream body = response.body()) {
+                    int status = response.statusCode();
+                    if (status >= 200 && status < 300) {
+                        return parseResponse(buildId, attempt, status, sent.sum(), body);
+                    }
+                    result = Result.failure(buildId, attempt, status, sent.sum(),
+                            "HTTP " + status + "; body='" + head(body) + "'");
+                    retryable = status == 429 || status >= 500;
+                }
+            } catch (IOException | UncheckedIOException e) {
+                result = Result.failure(buildId, attempt, 0, sent.sum(), e.toString());
+                retryable = true;
+            }
+            if (!retryable || attempt == maxAttempts) {
+                break;
+            }
+            Thread.sleep(backoff.toMillis());
+            backoff = backoff.multipliedBy(2);
+        }
+        return result;
+    }
+
+    /**
+     * build_id and skip_embeddings fields followed by the file part, opened afresh for every
+     * attempt. {@code sent} counts the body bytes handed to the client.
+     */
+    private InputStream multipartBody(Path report, String buildId, String boundary, LongAdder sent) {
+        String head = field(boundary, "build_id", buildId)
+                + field(boundary, "skip_embeddings", "true")
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + report.getFileName() + (gzip ? ".gz" : "") + "\"\r\n"
+                + "Content-Type: " + (gzip ? "application/gzip" : "text/plain; charset=UTF-8") + "\r\n\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+        try {
+            InputStream file = Files.newInputStream(report);
+            InputStream content = gzip ? new GzipCompressingInputStream(file) : file;
+            List<InputStream> parts = List.of(
+                    new ByteArrayInputStream(head.getBytes(StandardCharsets.UTF_8)),
+                    content,
+                    new ByteArrayInputStream(tail.getBytes(StandardCharsets.UTF_8)));
+            return new CountingInputStream(new SequenceInputStream(Collections.enumeration(parts)), sent);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open report " + report, e);
+        }
+    }
+
+    private static String field(String boundary, String name, String value) {
+        return "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n";
+    }
+
+    /**
+     * Keeps the known top-level fields and skips everything else without materialising it.
+     */
+    private static Result parseResponse(String buildId, int attempts, int status, long bytesSent, InputStream body) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Result.failure(buildId, attempts, status, bytesSent, "non-JSON response received");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!RESPONSE_FIELDS.contains(name)) {
+                    parser.skipChildren();
+                } else if (value == JsonToken.START_ARRAY) {
+                    List<String> items = new ArrayList<>();
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        items.add(parser.getText());
+                        parser.skipChildren();
+                    }
+                    fields.put(name, items);
+                } else if (value.isScalarValue()) {
+                    fields.put(name, value == JsonToken.VALUE_NULL ? null : parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                return Result.failure(buildId, attempts, status, bytesSent, "truncated JSON response");
+            }
+        } catch (IOException e) {
+            return Result.failure(buildId, attempts, status, bytesSent, "failed to parse response JSON (" + e.getMessage() + ")");
+        }
+        return new Result(true, buildId, attempts, status, bytesSent, null, fields);
+    }
+
+    private static String head(InputStream body) throws IOException {
+        byte[] bytes = body.readNBytes(ERROR_BODY_LIMIT);
+        return new String(bytes, StandardCharsets.UTF_8).trim();
+    }
+
+    static final class Result {
+        final boolean success;
+        final String buildId;
+        final int attempts;
+        final int httpStatus;
+        final long bytesSent;
+        final String error;
+        final Map<String, Object> response;
+
+        Result(boolean success, String buildId, int attempts, int httpStatus, long bytesSent,
+               String error, Map<String, Object> response) {
+            this.success = success;
+            this.buildId = buildId;
+            this.attempts = attempts;
+            this.httpStatus = httpStatus;
+            this.bytesSent = bytesSent;
+            this.error = error;
+            this.response = response;
+        }
+
+        static Result failure(String buildId, int attempts, int httpStatus, long bytesSent, String error) {
+            return new Result(false, buildId, attempts, httpStatus, bytesSent, error, Map.of());
+        }
+
+        void writeTo(Path path) {
+            Map<String, Object> root = new LinkedHashMap<>();
+            root.put("success", success);
+            root.put("build_id", buildId);
+            root.put("attempts", attempts);
+            root.put("http_status", httpStatus);
+            root.put("bytes_sent", bytesSent);
+            root.put("error", error);
+            root.put("response", response);
+            try {
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                MAPPER.writeValue(path.toFile(), root);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write upload result", e);
+            }
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final LongAdder count;
+
+        CountingInputStream(InputStream in, LongAdder count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.increment();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count.add(n);
+            }
+            return n;
+        }
+    }
+}
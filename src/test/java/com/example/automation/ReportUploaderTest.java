@@ -0,0 +1,190 @@
+package com.example.automation;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class ReportUploaderTest {
+
+    private static final String INGEST_PATH = "/api/ingest/build-report-file";
+    private static final String INGEST_RESPONSE = "{\"node_id\":\"node-7\",\"status\":\"ingested\","
+            + "\"embedding_model\":\"none\",\"chunks_created\":3,\"embeddings_status\":\"skipped\","
+            + "\"related_node_ids\":[\"node-1\",\"node-2\"],\"debug\":{\"ignored\":[1,2,3]},"
+            + "\"summary_text\":\"3 failures\"}";
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    private final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private volatile String responseBody = INGEST_RESPONSE;
+    private volatile Map<String, byte[]> lastParts;
+    private volatile String lastTransferEncoding;
+
+    @BeforeEach
+    void startIngestStandIn() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(INGEST_PATH, this::ingest);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void streamsGzippedReportAsMultipart() throws Exception {
+        Path report = writeReport(20_000);
+
+        ReportUploader.Result result = uploader(1).upload(report, "build-42");
+
+        assertTrue(result.success, result.error);
+        assertEquals(1, result.attempts);
+        assertEquals("chunked", lastTransferEncoding);
+        assertEquals("build-42", new String(lastParts.get("build_id"), StandardCharsets.UTF_8));
+        assertEquals("true", new String(lastParts.get("skip_embeddings"), StandardCharsets.UTF_8));
+        byte[] uploaded = gunzip(lastParts.get("file"));
+        assertArrayEquals(Files.readAllBytes(report), uploaded);
+        assertTrue(result.bytesSent < uploaded.length, "report should be sent compressed");
+
+        assertEquals("node-7", result.response.get("node_id"));
+        assertEquals("3", result.response.get("chunks_created"));
+        assertEquals(List.of("node-1", "node-2"), result.response.get("related_node_ids"));
+        assertEquals("3 failures", result.response.get("summary_text"));
+        assertFalse(result.response.containsKey("debug"));
+    }
+
+    @Test
+    void retriesServerErrorsAndRestreamsTheReport() throws Exception {
+        Path report = writeReport(100);
+        failuresBeforeSuccess.set(2);
+
+        ReportUploader.Result result = uploader(3).upload(report, "build-43");
+
+        assertTrue(result.success, result.error);
+        assertEquals(3, result.attempts);
+        assertArrayEquals(Files.readAllBytes(report), gunzip(lastParts.get("file")));
+    }
+
+    @Test
+    void reportsFailureWhenRetriesAreExhaustedOrResponseIsNotJson() throws Exception {
+        Path report = writeReport(10);
+        failuresBeforeSuccess.set(5);
+        ReportUploader.Result exhausted = uploader(2).upload(report, "build-44");
+        assertFalse(exhausted.success);
+        assertEquals(503, exhausted.httpStatus);
+        assertEquals(2, attempts.get());
+
+        failuresBeforeSuccess.set(0);
+        responseBody = "<html>ingest is down</html>";
+        ReportUploader.Result nonJson = uploader(2).upload(report, "build-44");
+        assertFalse(nonJson.success);
+        assertTrue(nonJson.error.startsWith("failed to parse response JSON")
+                || nonJson.error.startsWith("non-JSON"), nonJson.error);
+
+        ReportUploader.Result missing = uploader(1).upload(dir.resolve("absent.txt"), "build-44");
+        assertFalse(missing.success);
+        assertTrue(missing.error.startsWith("report not found"));
+    }
+
+    @Test
+    void writesResultForTheGradleTask() throws Exception {
+        Path report = writeReport(10);
+        Path resultFile = dir.resolve("reports").resolve("upload-result.json");
+
+        uploader(1).upload(report, "build-45").writeTo(resultFile);
+
+        var json = OrderApiTest.MAPPER.readTree(resultFile.toFile());
+        assertTrue(json.get("success").asBoolean());
+        assertEquals("build-45", json.get("build_id").asText());
+        assertEquals("node-7", json.get("response").get("node_id").asText());
+    }
+
+    private ReportUploader uploader(int maxAttempts) {
+        return new ReportUploader(OrderApiTest.CLIENT,
+                URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + INGEST_PATH),
+                maxAttempts, Duration.ofMillis(10), true);
+    }
+
+    private Path writeReport(int entries) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < entries; i++) {
+            sb.append("Test: getOrderStatus #").append(i).append("\n")
+                    .append("Curl: curl -X GET 'http://localhost:9090/api/orders/abcd-12345/status'\n")
+                    .append("Status: 200\nBody: {\"overallStatus\":\"ACTIVE\"}\n\n");
+        }
+        Path report = dir.resolve("curl-report.txt");
+        Files.writeString(report, sb);
+        return report;
+    }
+
+    private void ingest(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            attempts.incrementAndGet();
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            if (failuresBeforeSuccess.getAndDecrement() > 0) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            lastTransferEncoding = exchange.getRequestHeaders().getFirst("Transfer-encoding");
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            lastParts = parseMultipart(body, contentType.substring(contentType.indexOf("boundary=") + 9));
+            byte[] response = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+    }
+
+    private static Map<String, byte[]> parseMultipart(byte[] body, String boundary) {
+        // ISO-8859-1 maps bytes 1:1, so binary parts survive the round trip through String.
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        Map<String, byte[]> parts = new HashMap<>();
+        for (String part : text.split("--" + boundary)) {
+            int headerEnd = part.indexOf("\r\n\r\n");
+            int nameStart = part.indexOf("name=\"");
+            if (headerEnd < 0 || nameStart < 0) {
+                continue;
+            }
+            String name = part.substring(nameStart + 6, part.indexOf('"', nameStart + 6));
+            String content = part.substring(headerEnd + 4, part.length() - 2);
+            parts.put(name, content.getBytes(StandardCharsets.ISO_8859_1));
+        }
+        return parts;
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Per-endpoint timing of every request the suite sends. Each exchange records the time to
+ * response headers (first byte) and the total time including the body into
+ * {@link LatencyHistogram}s. java.net.http does not expose connection setup, so connect time
+ * is folded into first byte.
+ */
+final class RequestTimings {
+
+    static final Path LATENCY_JSON_PATH = Shards.local(Path.of("build", "reports", "latency.json"));
+    static final String SUMMARY_HEADING = "=== Latency Summary ===";
+    private static final ConcurrentMap<String, EndpointTimings> ENDPOINTS = new ConcurrentHashMap<>();
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private RequestTimings() {
+    }
+
+    static void reset() {
+        ENDPOINTS.clear();
+    }
+
+    /**
+     * Sends {@code request} through {@code client} and records its timings under {@code endpoint}
+     * (e.g. {@code GET /api/orders/{id}/status}). Failed exchanges still record total time.
+     */
+    static <T> HttpResponse<T> send(HttpClient client, String endpoint, HttpRequest request,
+                                    HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        EndpointTimings timings = ENDPOINTS.computeIfAbsent(endpoint, EndpointTimings::new);
+        FirstByteHandler<T> timed = new FirstByteHandler<>(handler);
+        SuiteMetrics.requestStarted();
+        long start = System.nanoTime();
+        try {
+            return client.send(request, timed);
+        } finally {
+            long end = System.nanoTime();
+            if (timed.received) {
+                timings.firstByte.record(timed.receivedAt - start);
+            }
+            timings.total.record(end - start);
+            SuiteMetrics.requestFinished(endpoint, timed.status());
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #send}: {@code reader} consumes the body stream and total time
+     * is recorded once it returns, so it covers reading (and parsing) the whole body.
+     */
+    static <R> R exchange(HttpClient client, String endpoint, HttpRequest request,
+                          BodyReader<R> reader) throws IOException, InterruptedException {
+        EndpointTimings timings = ENDPOINTS.computeIfAbsent(endpoint, EndpointTimings::new);
+        FirstByteHandler<InputStream> timed = new FirstByteHandler<>(HttpResponse.BodyHandlers.ofInputStream());
+        SuiteMetrics.requestStarted();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = client.send(request, timed);
+            InputStream body = response.body();
+            try {
+                return reader.read(response);
+            } finally {
+                body.close();
+            }
+        } finally {
+            long end = System.nanoTime();
+            if (timed.received) {
+                timings.firstByte.record(timed.receivedAt - start);
+            }
+            timings.total.record(end - start);
+            SuiteMetrics.requestFinished(endpoint, timed.status());
+        }
+    }
+
+    static Collection<EndpointTimings> all() {
+        return new TreeMap<>(ENDPOINTS).values();
+    }
+
+    static EndpointTimings timings(String endpoint) {
+        return ENDPOINTS.get(endpoint);
+    }
+
+    /**
+     * Renders the latency section appended to curl-report.txt; empty when nothing was timed.
+     */
+    static String renderSummary() {
+        if (ENDPOINTS.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(SUMMARY_HEADING).append('\n');
+        for (EndpointTimings timings : new TreeMap<>(ENDPOINTS).values()) {
+            sb.append("Endpoint: ").append(timings.endpoint).append("\n");
+            appendLine(sb, "first-byte", timings.firstByte.snapshot());
+            appendLine(sb, "total", timings.total.snapshot());
+        }
+        return sb.append("\n").toString();
+    }
+
+    static void writeJson(Path path) {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (EndpointTimings timings : new TreeMap<>(ENDPOINTS).values()) {
+            Map<String, Object> phases = new LinkedHashMap<>();
+            phases.put("firstByte", toJson(timings.firstByte.snapshot()));
+            phases.put("total", toJson(timings.total.snapshot()));
+            endpoints.put(timings.endpoint, phases);
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("generatedAt", DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(ZonedDateTime.now()));
+        root.put("unit", "ms");
+        root.put("endpoints", endpoints);
+        try {
+            Files.createDirectories(path.getParent());
+            MAPPER.writeValue(path.toFile(), root);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write latency report", e);
+        }
+    }
+
+    private static void appendLine(StringBuilder sb, String phase, LatencyHistogram.Snapshot snapshot) {
+        sb.append(String.format(Locale.ROOT, "  %s: count=%d p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms%n",
+                phase, snapshot.count, millis(snapshot.p50Nanos), millis(snapshot.p90Nanos),
+                millis(snapshot.p99Nanos), millis(snapshot.maxNanos)));
+    }
+
+    private static Map<String, Object> toJson(LatencyHistogram.Snapshot snapshot) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("count", snapshot.count);
+        json.put("p50", millis(snapshot.p50Nanos));
+        json.put("p90", millis(snapshot.p90Nanos));
+        json.put("p99", millis(snapshot.p99Nanos));
+        json.put("max", millis(snapshot.maxNanos));
+        return json;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e4) / 100.0;
+    }
+
+    @FunctionalInterface
+    interface BodyReader<R> {
+        R read(HttpResponse<InputStream> response) throws IOException;
+    }
+
+    static final class EndpointTimings {
+        final String endpoint;
+        final LatencyHistogram firstByte = new LatencyHistogram();
+        final LatencyHistogram total = new LatencyHistogram();
+
+        EndpointTimings(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    /**
+     * The client calls the body handler once the status line and headers are in, which is
+     * the closest observable point to time-to-first-byte. One instance per request, since it
+     * holds that request's arrival time and status; it is three fields, small next to the
+     * exchange itself.
+     */
+    private static final class FirstByteHandler<T> implements HttpResponse.BodyHandler<T> {
+        private final HttpResponse.BodyHandler<T> delegate;
+        private volatile boolean received;
+        private volatile long receivedAt;
+        private volatile int statusCode;
+
+        FirstByteHandler(HttpResponse.BodyHandler<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse.BodySubscriber<T> apply(HttpResponse.ResponseInfo responseInfo) {
+            receivedAt = System.nanoTime();
+            statusCode = responseInfo.statusCode();
+            received = true;
+            return delegate.apply(responseInfo);
+        }
+
+        /**
+         * The response status, or null when no response arrived.
+         */
+        Integer status() {
+            return received ? statusCode : null;
+        }
+    }
+}
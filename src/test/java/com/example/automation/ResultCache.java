@@ -0,0 +1,216 @@
+package com.example.automation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opt-in ({@code cache.enabled}) record of the last result of every data-driven case: test id,
+ * request fingerprint, deployment version and outcome, one tab-separated line each in
+ * {@code cache.file}. From it each case gets a {@link Decision}: cases that failed, are new or
+ * changed run first; unchanged passes run again only as a {@code cache.sample} fraction.
+ * Nothing is skipped unless the deployment version is known and matches the one the pass was
+ * recorded against, so a new deployment always gets the full suite.
+ *
+ * <p>The version is {@code cache.deploymentVersion} when given, otherwise the
+ * {@code cache.versionHeader} (default {@code X-Deployment-Version}) of a GET to
+ * {@code cache.versionPath} (default {@code /}).
+ */
+final class ResultCache {
+
+    // One file per shard; Gradle worker ids change between runs, so unlike reports they are not part of the name.
+    static final Path DEFAULT_PATH = Path.of("build", "result-cache", Shards.COUNT > 1
+            ? "results.shard-" + Shards.INDEX + "-of-" + Shards.COUNT + ".tsv"
+            : "results.tsv");
+    private static final String HEADER = "# result cache v1: testId\tfingerprint\tversion\toutcome\tepochMillis\n";
+
+    private static ResultCache suite; // guarded by ResultCache.class
+
+    private final Path path;
+    private final String version;
+    private final double sampleRate;
+    private final Map<String, Entry> previous;
+    private final ConcurrentMap<String, Entry> current = new ConcurrentHashMap<>();
+
+    ResultCache(Path path, String version, double sampleRate, Map<String, Entry> previous) {
+        this.path = path;
+        this.version = version;
+        this.sampleRate = sampleRate;
+        this.previous = previous;
+    }
+
+    /**
+     * The suite-wide cache, loaded on first use; null unless {@code cache.enabled} is set.
+     */
+    static synchronized ResultCache suite(HttpClient client, String baseUrl) {
+        if (suite == null && Boolean.getBoolean("cache.enabled")) {
+            suite = load(Path.of(System.getProperty("cache.file", DEFAULT_PATH.toString())),
+                    resolveVersion(client, baseUrl),
+                    Double.parseDouble(System.getProperty("cache.sample", "0")));
+        }
+        return suite;
+    }
+
+    /**
+     * Writes the suite-wide cache, if one was loaded.
+     */
+    static synchronized void saveSuite() {
+        if (suite != null) {
+            suite.save();
+        }
+    }
+
+    static ResultCache load(Path path, String version, double sampleRate) {
+        Map<String, Entry> previous = new HashMap<>();
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split("\t", -1);
+                    if (line.startsWith("#") || fields.length != 5) {
+                        continue;
+                    }
+                    previous.put(fields[0], new Entry(fields[1], fields[2].isEmpty() ? null : fields[2],
+                            "PASSED".equals(fields[3]), Long.parseLong(fields[4])));
+                }
+            } catch (IOException | NumberFormatException e) {
+                throw new RuntimeException("Failed to read result cache " + path, e);
+            }
+        }
+        return new ResultCache(path, version, sampleRate, previous);
+    }
+
+    static String resolveVersion(HttpClient client, String baseUrl) {
+        String supplied = System.getProperty("cache.deploymentVersion");
+        if (supplied != null && !supplied.isBlank()) {
+            return supplied;
+        }
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUrl + System.getProperty("cache.versionPath", "/")))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        try {
+            return client.send(probe, HttpResponse.BodyHandlers.discarding()).headers()
+                    .firstValue(System.getProperty("cache.versionHeader", "X-Deployment-Version"))
+                    .orElse(null);
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Fingerprints a case by its target and its full definition, so editing the request or
+     * its expectations, or pointing at another host, counts as a change.
+     */
+    static String fingerprint(String target, String definition) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(target.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(definition.trim().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+
+    String version() {
+        return version;
+    }
+
+    /**
+     * True for cases that failed, are new or changed since the last run.
+     */
+    boolean runsFirst(String testId, String fingerprint) {
+        Entry last = previous.get(key(testId));
+        return last == null || !last.passed || !last.fingerprint.equals(fingerprint);
+    }
+
+    /**
+     * Decides once per case per run, since sampling is random. {@link Decision#SKIP} also
+     * carries the previous entry into the next cache file.
+     */
+    Decision decide(String testId, String fingerprint) {
+        if (runsFirst(testId, fingerprint)) {
+            return Decision.RUN_FIRST;
+        }
+        Entry last = previous.get(key(testId));
+        if (version == null || !version.equals(last.version) || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            return Decision.RUN;
+        }
+        current.putIfAbsent(key(testId), last);
+        return Decision.SKIP;
+    }
+
+    void record(String testId, String fingerprint, boolean passed) {
+        current.put(key(testId), new Entry(fingerprint, version, passed, System.currentTimeMillis()));
+    }
+
+    /**
+     * Writes the entries seen in this run, so cases removed from the suite drop out.
+     */
+    void save() {
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                for (Map.Entry<String, Entry> entry : new TreeMap<>(current).entrySet()) {
+                    Entry value = entry.getValue();
+                    writer.write(entry.getKey() + "\t" + value.fingerprint
+                            + "\t" + (value.version == null ? "" : value.version.replace('\t', ' '))
+                            + "\t" + (value.passed ? "PASSED" : "FAILED") + "\t" + value.epochMillis + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write result cache", e);
+        }
+    }
+
+    private static String key(String testId) {
+        return testId.replace('\t', ' ').replace('\n', ' ');
+    }
+
+    enum Decision {
+        /** Failed, new or changed since the last run. */
+        RUN_FIRST,
+        /** Passed last time but must run again (new deployment, unknown version or sampled). */
+        RUN,
+        /** Passed unchanged against this deployment version. */
+        SKIP
+    }
+
+    static final class Entry {
+        final String fingerprint;
+        final String version;
+        final boolean passed;
+        final long epochMillis;
+
+        Entry(String fingerprint, String version, boolean passed, long epochMillis) {
+            this.fingerprint = fingerprint;
+            this.version = version;
+            this.passed = passed;
+            this.epochMillis = epochMillis;
+        }
+    }
+}
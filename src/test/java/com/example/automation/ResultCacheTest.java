@@ -0,0 +1,64 @@
+package com.example.automation;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResultCacheTest {
+
+    private static final String BASE_URL = "http://localhost:9090";
+    private static final String PASSING = "{\"name\":\"passing\",\"method\":\"GET\",\"path\":\"/api/orders/1/status\"}";
+    private static final String FAILING = "{\"name\":\"failing\",\"method\":\"GET\",\"path\":\"/api/orders/2/status\"}";
+    private static final String EDITED = "{\"name\":\"edited\",\"method\":\"GET\",\"path\":\"/api/orders/3/status\"}";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void skipsOnlyUnchangedPassesOnTheSameDeployment() {
+        Path path = tempDir.resolve("results.tsv");
+        ResultCache first = ResultCache.load(path, "v1", 0);
+        first.record("passing", ResultCache.fingerprint(BASE_URL, PASSING), true);
+        first.record("failing", ResultCache.fingerprint(BASE_URL, FAILING), false);
+        first.record("edited", ResultCache.fingerprint(BASE_URL, EDITED), true);
+        first.save();
+
+        ResultCache second = ResultCache.load(path, "v1", 0);
+        assertEquals(ResultCache.Decision.SKIP, second.decide("passing", ResultCache.fingerprint(BASE_URL, PASSING)));
+        assertEquals(ResultCache.Decision.RUN_FIRST, second.decide("failing", ResultCache.fingerprint(BASE_URL, FAILING)));
+        assertEquals(ResultCache.Decision.RUN_FIRST,
+                second.decide("edited", ResultCache.fingerprint(BASE_URL, EDITED.replace("/3/", "/4/"))));
+        assertEquals(ResultCache.Decision.RUN_FIRST, second.decide("new", ResultCache.fingerprint(BASE_URL, PASSING)));
+        assertFalse(second.runsFirst("passing", ResultCache.fingerprint(BASE_URL, PASSING)));
+        assertTrue(second.runsFirst("passing", ResultCache.fingerprint("http://staging:8080", PASSING)));
+
+        ResultCache redeployed = ResultCache.load(path, "v2", 0);
+        assertEquals(ResultCache.Decision.RUN, redeployed.decide("passing", ResultCache.fingerprint(BASE_URL, PASSING)));
+        ResultCache unknown = ResultCache.load(path, null, 0);
+        assertEquals(ResultCache.Decision.RUN, unknown.decide("passing", ResultCache.fingerprint(BASE_URL, PASSING)));
+        ResultCache sampled = ResultCache.load(path, "v1", 1.0);
+        assertEquals(ResultCache.Decision.RUN, sampled.decide("passing", ResultCache.fingerprint(BASE_URL, PASSING)));
+    }
+
+    @Test
+    void savesSkippedEntriesAndDropsCasesNotSeen() throws Exception {
+        Path path = tempDir.resolve("results.tsv");
+        ResultCache first = ResultCache.load(path, "v1", 0);
+        first.record("passing", ResultCache.fingerprint(BASE_URL, PASSING), true);
+        first.record("removed", ResultCache.fingerprint(BASE_URL, FAILING), true);
+        first.save();
+
+        ResultCache second = ResultCache.load(path, "v1", 0);
+        assertEquals(ResultCache.Decision.SKIP, second.decide("passing", ResultCache.fingerprint(BASE_URL, PASSING)));
+        second.save();
+
+        String saved = Files.readString(path);
+        assertTrue(saved.contains("passing\t" + ResultCache.fingerprint(BASE_URL, PASSING) + "\tv1\tPASSED\t"), saved);
+        assertFalse(saved.contains("removed"), saved);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.automation;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Splits the API tests into {@code shard.count} shards and keeps those of {@code shard.index}
+ * ({@code -PshardIndex}/{@code -PshardCount}). A test belongs to a shard by the hash of its id,
+ * so every JVM or CI node computes the same split without coordination.
+ *
+ * <p>When the run is split, by shards or by Gradle forks ({@code shard.forked}), each test JVM
+ * writes its reports under {@link #SEGMENTS_DIR} with its segment name in the file name instead
+ * of sharing build/reports; {@link CurlReportMerger} joins them afterwards.
+ */
+final class Shards {
+
+    static final int INDEX = Integer.getInteger("shard.index", 0);
+    static final int COUNT = Integer.getInteger("shard.count", 1);
+    static final Path SEGMENTS_DIR = Path.of("build", "reports", "segments");
+    private static final boolean FORKED = Boolean.getBoolean("shard.forked");
+
+    static {
+        if (COUNT < 1 || INDEX < 0 || INDEX >= COUNT) {
+            throw new IllegalStateException("shard.index must be in [0, shard.count), got " + INDEX + " of " + COUNT);
+        }
+    }
+
+    private Shards() {
+    }
+
+    static boolean segmented() {
+        return COUNT > 1 || FORKED;
+    }
+
+    static boolean owns(String testId) {
+        return Math.floorMod(testId.hashCode(), COUNT) == INDEX;
+    }
+
+    /**
+     * This JVM's segment, e.g. {@code shard-1-of-4}, plus the Gradle worker id when forked.
+     */
+    static String segment() {
+        String worker = System.getProperty("org.gradle.test.worker");
+        return "shard-" + INDEX + "-of-" + COUNT + (FORKED && worker != null ? "-worker-" + worker : "");
+    }
+
+    /**
+     * Where this JVM writes a report that lives at {@code path} in an unsplit run:
+     * {@code build/reports/latency.json} becomes
+     * {@code build/reports/segments/latency.shard-1-of-4.json}.
+     */
+    static Path local(Path path) {
+        if (!segmented()) {
+            return path;
+        }
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return SEGMENTS_DIR.resolve(dot < 0
+                ? name + "." + segment()
+                : name.substring(0, dot) + "." + segment() + name.substring(dot));
+    }
+
+    /**
+     * Disables test methods that belong to another shard; register with {@code @ExtendWith}.
+     */
+    static final class Condition implements ExecutionCondition {
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            if (context.getTestMethod().isEmpty() || COUNT == 1) {
+                return ConditionEvaluationResult.enabled("not sharded");
+            }
+            String testId = context.getRequiredTestClass().getSimpleName() + "#" + context.getRequiredTestMethod().getName();
+            return owns(testId)
+                    ? ConditionEvaluationResult.enabled("on shard " + INDEX)
+                    : ConditionEvaluationResult.disabled("runs on shard " + Math.floorMod(testId.hashCode(), COUNT) + " of " + COUNT);
+        }
+    }
+}
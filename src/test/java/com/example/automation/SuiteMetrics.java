@@ -0,0 +1,214 @@
+package com.example.automation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JVM-wide execution metrics for the suite, dumped once per run to {@code metrics.prom} in
+ * OpenMetrics text format. Counters and the in-flight gauge are {@link LongAdder}s and the
+ * histograms are {@link LatencyHistogram}s, so recording never takes a lock. Request latency
+ * comes from the histograms {@link RequestTimings} already keeps; load runs are exported as their
+ * own {@code api_suite_load_*} families, so they never mix with the functional requests.
+ */
+final class SuiteMetrics {
+
+    static final Path METRICS_PATH = Shards.local(Path.of("build", "reports", "metrics.prom"));
+
+    /** Exported bucket bounds for the latency histograms, in seconds. */
+    private static final double[] BUCKET_SECONDS = {0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final long[] BUCKET_NANOS = new long[BUCKET_SECONDS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+            BUCKET_NANOS[i] = (long) (BUCKET_SECONDS[i] * 1e9);
+        }
+    }
+
+    private static final Registry SUITE = new Registry();
+
+    private SuiteMetrics() {
+    }
+
+    static void reset() {
+        SUITE.reset();
+    }
+
+    static void requestStarted() {
+        SUITE.requestStarted();
+    }
+
+    /**
+     * Ends a request started with {@link #requestStarted}; {@code status} is null when it failed
+     * without a response.
+     */
+    static void requestFinished(String endpoint, Integer status) {
+        SUITE.requestFinished(endpoint, status);
+    }
+
+    static void failure(String assertion) {
+        SUITE.failure(assertion);
+    }
+
+    static void reportWritten(long bytes, long nanos) {
+        SUITE.reportWritten(bytes, nanos);
+    }
+
+    static void loadFinished(LoadGenerator.Result result) {
+        SUITE.loadFinished(result);
+    }
+
+    static void writeOpenMetrics(Path path) {
+        try {
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, SUITE.render(RequestTimings.all()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write metrics", e);
+        }
+    }
+
+    /**
+     * The metric state behind the static API; tests render their own instance so they do not
+     * leak into the suite's metrics.prom.
+     */
+    static final class Registry {
+        private final ConcurrentMap<String, LongAdder> requests = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, LongAdder> failures = new ConcurrentHashMap<>();
+        private final LongAdder reportBytes = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private final LongAccumulator maxInFlight = new LongAccumulator(Math::max, 0);
+        private final ConcurrentMap<String, LoadGenerator.EndpointStats> load = new ConcurrentHashMap<>();
+        private volatile LatencyHistogram reportWrites = new LatencyHistogram();
+
+        void reset() {
+            requests.clear();
+            load.clear();
+            failures.clear();
+            reportBytes.reset();
+            maxInFlight.reset();
+            reportWrites = new LatencyHistogram();
+        }
+
+        void requestStarted() {
+            inFlight.increment();
+            maxInFlight.accumulate(inFlight.sum());
+        }
+
+        void requestFinished(String endpoint, Integer status) {
+            inFlight.decrement();
+            String statusClass = status == null ? "error" : (status / 100) + "xx";
+            requests.computeIfAbsent(endpoint + '\0' + statusClass, key -> new LongAdder()).increment();
+        }
+
+        void failure(String assertion) {
+            failures.computeIfAbsent(assertion, key -> new LongAdder()).increment();
+        }
+
+        void reportWritten(long bytes, long nanos) {
+            reportBytes.add(bytes);
+            reportWrites.record(nanos);
+        }
+
+        /**
+         * Keeps the per-endpoint stats of a load run; a later run of the same endpoint replaces them.
+         */
+        void loadFinished(LoadGenerator.Result result) {
+            load.putAll(result.endpoints);
+        }
+
+        String render(Collection<RequestTimings.EndpointTimings> endpoints) {
+            StringBuilder sb = new StringBuilder();
+
+            sb.append("# TYPE api_suite_requests counter\n");
+            sb.append("# HELP api_suite_requests Requests sent by the suite, by endpoint and status class.\n");
+            for (Map.Entry<String, LongAdder> entry : new TreeMap<>(requests).entrySet()) {
+                String[] key = entry.getKey().split("\0", 2);
+                sb.append("api_suite_requests_total{endpoint=\"").append(escape(key[0]))
+                        .append("\",status_class=\"").append(key[1]).append("\"} ").append(entry.getValue().sum()).append('\n');
+            }
+
+            sb.append("# TYPE api_suite_failures counter\n");
+            sb.append("# HELP api_suite_failures Failures reported to curl-report.txt, by assertion.\n");
+            for (Map.Entry<String, LongAdder> entry : new TreeMap<>(failures).entrySet()) {
+                sb.append("api_suite_failures_total{assertion=\"").append(escape(entry.getKey())).append("\"} ")
+                        .append(entry.getValue().sum()).append('\n');
+            }
+
+            sb.append("# TYPE api_suite_report_bytes counter\n");
+            sb.append("# HELP api_suite_report_bytes Bytes written to report files.\n");
+            sb.append("api_suite_report_bytes_total ").append(reportBytes.sum()).append('\n');
+
+            sb.append("# TYPE api_suite_requests_in_flight gauge\n");
+            sb.append("# HELP api_suite_requests_in_flight Requests awaiting a response when the metrics were written.\n");
+            sb.append("api_suite_requests_in_flight ").append(inFlight.sum()).append('\n');
+            sb.append("# TYPE api_suite_requests_in_flight_max gauge\n");
+            sb.append("# HELP api_suite_requests_in_flight_max Most requests in flight at once during the run.\n");
+            sb.append("api_suite_requests_in_flight_max ").append(maxInFlight.get()).append('\n');
+
+            sb.append("# TYPE api_suite_request_duration_seconds histogram\n");
+            sb.append("# UNIT api_suite_request_duration_seconds seconds\n");
+            sb.append("# HELP api_suite_request_duration_seconds Request time including the body, by endpoint.\n");
+            for (RequestTimings.EndpointTimings timings : endpoints) {
+                appendHistogram(sb, "api_suite_request_duration_seconds",
+                        "endpoint=\"" + escape(timings.endpoint) + "\"", timings.total);
+            }
+
+            sb.append("# TYPE api_suite_load_requests counter\n");
+            sb.append("# HELP api_suite_load_requests Load-test requests, by endpoint and outcome (ok, error, dropped).\n");
+            Map<String, LoadGenerator.EndpointStats> loadByEndpoint = new TreeMap<>(load);
+            for (LoadGenerator.EndpointStats stats : loadByEndpoint.values()) {
+                String endpoint = "api_suite_load_requests_total{endpoint=\"" + escape(stats.name) + "\",outcome=\"";
+                long errors = stats.errors.sum();
+                sb.append(endpoint).append("ok\"} ").append(stats.requests.sum() - errors).append('\n');
+                sb.append(endpoint).append("error\"} ").append(errors).append('\n');
+                sb.append(endpoint).append("dropped\"} ").append(stats.dropped.sum()).append('\n');
+            }
+
+            sb.append("# TYPE api_suite_load_request_duration_seconds histogram\n");
+            sb.append("# UNIT api_suite_load_request_duration_seconds seconds\n");
+            sb.append("# HELP api_suite_load_request_duration_seconds Load-test request time, by endpoint.\n");
+            for (LoadGenerator.EndpointStats stats : loadByEndpoint.values()) {
+                appendHistogram(sb, "api_suite_load_request_duration_seconds",
+                        "endpoint=\"" + escape(stats.name) + "\"", stats.latency);
+            }
+
+            sb.append("# TYPE api_suite_report_write_duration_seconds histogram\n");
+            sb.append("# UNIT api_suite_report_write_duration_seconds seconds\n");
+            sb.append("# HELP api_suite_report_write_duration_seconds Time per batched write to a report file.\n");
+            appendHistogram(sb, "api_suite_report_write_duration_seconds", null, reportWrites);
+
+            return sb.append("# EOF\n").toString();
+        }
+    }
+
+    private static void appendHistogram(StringBuilder sb, String name, String labels, LatencyHistogram histogram) {
+        String prefix = labels == null ? "" : labels + ",";
+        String suffix = labels == null ? "" : "{" + labels + "}";
+        long[] cumulative = histogram.cumulativeCounts(BUCKET_NANOS);
+        for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+            sb.append(name).append("_bucket{").append(prefix).append("le=\"").append(format(BUCKET_SECONDS[i]))
+                    .append("\"} ").append(cumulative[i]).append('\n');
+        }
+        long count = Math.max(histogram.count(), cumulative[cumulative.length - 1]);
+        sb.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ").append(count).append('\n');
+        sb.append(name).append("_count").append(suffix).append(' ').append(count).append('\n');
+        sb.append(name).append("_sum").append(suffix).append(' ').append(format(histogram.sumNanos() / 1e9)).append('\n');
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%s", value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.automation;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class SuiteMetricsTest {
+
+    @Test
+    void rendersOpenMetricsText() {
+        SuiteMetrics.Registry registry = new SuiteMetrics.Registry();
+        RequestTimings.EndpointTimings timings = new RequestTimings.EndpointTimings("GET /api/orders/{id}/status");
+        registry.requestStarted();
+        registry.requestStarted();
+        registry.requestFinished(timings.endpoint, 200);
+        registry.requestFinished(timings.endpoint, null);
+        timings.total.record(3_000_000);
+        timings.total.record(700_000_000);
+        registry.failure("body \"status\" is\nPAID");
+        registry.reportWritten(512, 40_000);
+        LoadGenerator.EndpointStats load = new LoadGenerator.EndpointStats("GET /api/orders/{id}/status");
+        load.record(2_000_000, true);
+        load.record(2_000_000, false);
+        load.dropped.increment();
+        registry.loadFinished(new LoadGenerator.Result(null, Map.of(load.name, load), 1_000_000_000));
+
+        String text = registry.render(List.of(timings));
+
+        assertTrue(text.contains("api_suite_requests_total{endpoint=\"GET /api/orders/{id}/status\",status_class=\"2xx\"} 1\n"), text);
+        assertTrue(text.contains("status_class=\"error\"} 1\n"), text);
+        assertTrue(text.contains("api_suite_failures_total{assertion=\"body \\\"status\\\" is\\nPAID\"} 1\n"), text);
+        assertTrue(text.contains("api_suite_report_bytes_total 512\n"), text);
+        assertTrue(text.contains("api_suite_requests_in_flight 0\n"), text);
+        assertTrue(text.contains("api_suite_requests_in_flight_max 2\n"), text);
+        assertTrue(text.contains("api_suite_request_duration_seconds_bucket{endpoint=\"GET /api/orders/{id}/status\",le=\"0.005\"} 1\n"), text);
+        assertTrue(text.contains("api_suite_request_duration_seconds_bucket{endpoint=\"GET /api/orders/{id}/status\",le=\"0.5\"} 1\n"), text);
+        assertTrue(text.contains("api_suite_request_duration_seconds_bucket{endpoint=\"GET /api/orders/{id}/status\",le=\"+Inf\"} 2\n"), text);
+        assertTrue(text.contains("api_suite_request_duration_seconds_count{endpoint=\"GET /api/orders/{id}/status\"} 2\n"), text);
+        assertTrue(text.contains("api_suite_report_write_duration_seconds_count 1\n"), text);
+        assertTrue(text.contains("api_suite_load_requests_total{endpoint=\"GET /api/orders/{id}/status\",outcome=\"ok\"} 1\n"), text);
+        assertTrue(text.contains("api_suite_load_requests_total{endpoint=\"GET /api/orders/{id}/status\",outcome=\"error\"} 1\n"), text);
+        assertTrue(text.contains("api_suite_load_requests_total{endpoint=\"GET /api/orders/{id}/status\",outcome=\"dropped\"} 1\n"), text);
+        assertTrue(text.contains("api_suite_load_request_duration_seconds_count{endpoint=\"GET /api/orders/{id}/status\"} 2\n"), text);
+        assertTrue(text.contains("api_suite_request_duration_seconds_count{endpoint=\"GET /api/orders/{id}/status\"} 2\n"), "load stays out of the suite histogram");
+        assertTrue(text.endsWith("# EOF\n"), text);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.automation;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Shares one curl report across every test class in the JVM: the report, timings, metrics and
+ * spilled response bodies are reset before the first class starts, and the latency summary,
+ * failure fingerprints, latency.json, final flush, metrics.prom and the result cache are
+ * written once when the whole run ends (the root store closes its resources last).
+ */
+final class SuiteReportExtension implements BeforeAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SuiteReportExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent("suite-report", key -> {
+            CurlReporter.resetReport();
+            BodyCapture.clearSpillDirectory();
+            RequestTimings.reset();
+            SuiteMetrics.reset();
+            return new SuiteReport();
+        }, SuiteReport.class);
+    }
+
+    private static final class SuiteReport implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() {
+            CurlReporter.logLatencySummary(RequestTimings.renderSummary());
+            CurlReporter.logFailureIndex();
+            RequestTimings.writeJson(RequestTimings.LATENCY_JSON_PATH);
+            CurlReporter.flushReport();
+            SuiteMetrics.writeOpenMetrics(SuiteMetrics.METRICS_PATH);
+            ResultCache.saveSuite();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.automation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for request fan-out. Uses one virtual thread per task when the running JDK
+ * provides them (21+); on older runtimes falls back to a cached pool of daemon threads.
+ */
+final class TaskExecutors {
+
+    private static final MethodHandle VIRTUAL_PER_TASK = lookupVirtualPerTask();
+
+    private TaskExecutors() {
+    }
+
+    static boolean virtualThreadsAvailable() {
+        return VIRTUAL_PER_TASK != null;
+    }
+
+    static ExecutorService perTask(String namePrefix) {
+        if (VIRTUAL_PER_TASK != null) {
+            try {
+                return (ExecutorService) VIRTUAL_PER_TASK.invoke();
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to create virtual-thread executor", e);
+            }
+        }
+        return Executors.newCachedThreadPool(daemonFactory(namePrefix));
+    }
+
+    static ThreadFactory daemonFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static MethodHandle lookupVirtualPerTask() {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            // JDK 19/20 expose the method as a preview API that throws unless preview is enabled.
+            ((ExecutorService) handle.invoke()).shutdown();
+            return handle;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}